@@ -1,29 +1,48 @@
 package com.example.connect4;
 
+import com.example.connect4.engine.AI;
+import com.example.connect4.engine.Game;
+import com.example.connect4.engine.GameConfig;
+import com.example.connect4.engine.GameRecord;
+import com.example.connect4.engine.GameRecordWriter;
+import com.example.connect4.engine.PonderingAI;
+import com.example.connect4.engine.Position;
 import javafx.scene.control.Alert;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.shape.Circle;
 import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.scene.control.ButtonType;
 import javafx.stage.Stage;
 import java.util.Optional;
-import java.util.List;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import javafx.stage.FileChooser;
 import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class GameController {
-    private GameData gameData;
+    public static final String ARCHIVE_EXTENSION = ".c4g"; // Binary game archives, see GameRecordWriter
+
+    private Game game;
     private GameView gameView;
     private AI aiPlayer;
     private String whoPlaysFirst;
     private String difficulty;
 
-    public GameController(GameData gameData) {
-        this.gameData = gameData;
+    // Searches run here so the FX thread keeps rendering; daemon so a running search never blocks exit
+    private final ExecutorService aiExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "connect4-ai");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Task<Integer> aiTask; // Search in progress, only touched on the FX thread
+
+    public GameController(Game game) {
+        this.game = game;
         this.gameView = new GameView(this::showRestartConfirmAlert, this::showNewGameConfirmAlert, this::saveGame);
         attachEventListeners();
     }
@@ -49,25 +68,69 @@ public class GameController {
     public GameView getGameView() {
         return gameView;
     }
-    public GameData getGameData() { return gameData; }
+    public Game getGame() { return game; }
 
     public void setAiPlayer(AI aiPlayer) {
+        cancelAiMove();
+        if (this.aiPlayer instanceof PonderingAI) ((PonderingAI) this.aiPlayer).shutdown();
         this.aiPlayer = aiPlayer;
     }
     public void setDifficulty(String difficulty) { this.difficulty = difficulty; }
     public void setWhoPlaysFirst(String player) {
         whoPlaysFirst = player;
+        game.newGame(player.equals("AI") ? GameConfig.AI : GameConfig.PLAYER); // Starts over with that side to move
     }
 
+    // Start the AI search in the background; the move is applied on the FX thread when it finishes
     public void aiMakeMove() {
-        int aiColumn = aiPlayer.chooseColumn(gameData.getBoard());
-        int aiRow = gameData.placePiece(aiColumn, GameConfig.AI);
+        if (aiTask != null) return; // Already thinking
+
+        Position position = game.getPosition(); // Snapshot, the search never sees the live board
+        AI searchingPlayer = aiPlayer;
+        Task<Integer> task = new Task<>() {
+            @Override
+            protected Integer call() {
+                return searchingPlayer.chooseColumn(position);
+            }
+        };
+        task.setOnSucceeded(event -> {
+            if (aiTask != task) return; // Cancelled by a restart
+            aiTask = null;
+            enableBoardInteraction();
+            applyAiMove(task.getValue());
+        });
+        task.setOnFailed(event -> {
+            if (aiTask != task) return;
+            aiTask = null;
+            enableBoardInteraction();
+            showAlert("AI Error", "The AI failed to choose a move: " + task.getException().getMessage());
+        });
+
+        aiTask = task;
+        disableBoardInteraction();
+        aiExecutor.execute(task);
+    }
+
+    // Abandon the running search, its result is ignored, and stop thinking about the position being left
+    public void cancelAiMove() {
+        if (aiTask != null) {
+            Task<Integer> task = aiTask;
+            aiTask = null;
+            task.cancel(true); // Interrupts the search thread, which engines treat as out of time
+        }
+        if (aiPlayer instanceof PonderingAI) ((PonderingAI) aiPlayer).stopPondering();
+    }
+
+    private void applyAiMove(int aiColumn) {
+        int aiRow = game.play(aiColumn);
         if (aiRow != GameConfig.INVALID) {
-            gameData.logMove("AI", aiColumn, aiRow); // Log the move
             gameView.updateUI(aiRow, aiColumn, GameConfig.AI); // Update UI of table
-            if (gameData.checkWin(aiRow, aiColumn)) {
+            if (game.getStatus() == Game.Status.AI_WON) {
                 showWinAlert("Lose"); // AI wins
             }
+            else if (game.getStatus() == Game.Status.DRAW) {
+                showWinAlert("Draw"); // Draw
+            }
         }
     }
 
@@ -75,19 +138,19 @@ public class GameController {
         Circle clickedCircle = (Circle) event.getSource();
 
         // Player's turn
+        if (game.getToMove() != GameConfig.PLAYER) return;
         int column = GridPane.getColumnIndex(clickedCircle);
-        int row = gameData.placePiece(column, GameConfig.PLAYER);
+        int row = game.play(column);
 
         if (row != GameConfig.INVALID) {
-            gameData.logMove("PLAYER", column, row); // Log the move
             gameView.updateUI(row, column, GameConfig.PLAYER); // Update UI of table
 
-            if (gameData.checkWin(row, column)) {
+            if (game.getStatus() == Game.Status.PLAYER_WON) {
                 showWinAlert("Win"); // Player wins
                 return;
             }
 
-            if (gameData.checkDraw()) {
+            if (game.getStatus() == Game.Status.DRAW) {
                 showWinAlert("Draw"); // Draw
                 return;
             }
@@ -103,18 +166,18 @@ public class GameController {
     private void handleHoverEnter(MouseEvent event) {
         Circle hoveredCircle = (Circle) event.getSource();
         int column = GridPane.getColumnIndex(hoveredCircle);
-        int row = gameData.findEmptyRow(column);
+        int row = game.findEmptyRow(column);
         if (row != -1) {
-            gameView.getCircle(row, column).setFill(GameConfig.COLOR_PLAYER);
+            gameView.getCircle(row, column).setFill(ViewConfig.COLOR_PLAYER);
         }
     }
 
     private void handleHoverExit(MouseEvent event) {
         Circle exitedCircle = (Circle) event.getSource();
         int column = GridPane.getColumnIndex(exitedCircle);
-        int row = gameData.findEmptyRow(column);
+        int row = game.findEmptyRow(column);
         if (row != -1) {
-            gameView.getCircle(row, column).setFill(GameConfig.COLOR_CIRCLE);
+            gameView.getCircle(row, column).setFill(ViewConfig.COLOR_CIRCLE);
         }
     }
 
@@ -133,7 +196,8 @@ public class GameController {
 
         Optional<ButtonType> decision = alert.showAndWait();
         if (decision.isPresent() && decision.get() == restartButton) {
-            gameData.restartGame();
+            cancelAiMove();
+            game.newGame();
             gameView.restartUI();
             enableBoardInteraction();
             if (whoPlaysFirst.equals("AI")) {
@@ -141,13 +205,15 @@ public class GameController {
             }
         }
         else if (decision.isPresent() && decision.get() == newGameButton) {
-            gameData.restartGame();
+            cancelAiMove();
+            game.newGame();
             gameView.restartUI();
             enableBoardInteraction();
             GameSettingsManager gameSettingsManager = new GameSettingsManager();
             Platform.runLater(() -> gameSettingsManager.showSettingsWindow((Stage) gameView.getRoot().getScene().getWindow()));
         }
         else if (decision.isPresent() && decision.get() == exitButton) {
+            cancelAiMove();
             Platform.exit();
         }
     }
@@ -165,7 +231,8 @@ public class GameController {
 
         Optional<ButtonType> decision = alert.showAndWait();
         if (decision.isPresent() && decision.get() == yesButton) {
-            gameData.restartGame();
+            cancelAiMove();
+            game.newGame();
             gameView.restartUI();
             enableBoardInteraction();
             if (whoPlaysFirst.equals("AI")) {
@@ -190,7 +257,8 @@ public class GameController {
 
         Optional<ButtonType> decision = alert.showAndWait();
         if (decision.isPresent() && decision.get() == yesButton) {
-            gameData.restartGame();
+            cancelAiMove();
+            game.newGame();
             gameView.restartUI();
             enableBoardInteraction();
             GameSettingsManager gameSettingsManager = new GameSettingsManager();
@@ -219,9 +287,11 @@ public class GameController {
         if (decision.isPresent()) {
             if (decision.get() == buttonSave) {
                 saveGame();
+                cancelAiMove();
                 Platform.exit();
             }
             else if (decision.get() == buttonDontSave) {
+                cancelAiMove();
                 Platform.exit();
             }
             else enableBoardInteraction();
@@ -245,6 +315,7 @@ public class GameController {
     }
 
     private void enableBoardInteraction() {
+        if (aiTask != null) return; // Board stays locked until the AI has moved
         for (int i = 0; i < GameConfig.ROWS; i++) {
             for (int j = 0; j < GameConfig.COLUMNS; j++) {
                 gameView.getCircle(i, j).setDisable(false);
@@ -252,27 +323,28 @@ public class GameController {
         }
     }
 
-    // Save the game state to a file
+    // Save the game state to a file: a text save file, or appended to a binary game archive
     public void saveGame() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Save Game");
         fileChooser.getExtensionFilters().addAll(
                 new FileChooser.ExtensionFilter("Text Files", "*.txt"),
+                new FileChooser.ExtensionFilter("Game Archives", "*" + ARCHIVE_EXTENSION),
                 new FileChooser.ExtensionFilter("All Files", "*.*"));
         File file = fileChooser.showSaveDialog(gameView.getRoot().getScene().getWindow());
 
         if (file != null) {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(whoPlaysFirst + " plays first");
-                writer.newLine();
-                writer.write("Difficulty: " + difficulty);
-                writer.newLine();
-                writer.write("Log of moves:");
-                writer.newLine();
-                List<GameData.Move> moves = gameData.getMoveLog();
-                for (GameData.Move move : moves) {
-                    writer.write(move.player + ": column " + move.column + ", row " + move.row);
-                    writer.newLine();
+            GameRecord record = GameRecord.of(game, difficulty);
+            try {
+                if (file.getName().endsWith(ARCHIVE_EXTENSION)) {
+                    try (GameRecordWriter writer = new GameRecordWriter(file.toPath())) {
+                        writer.append(record);
+                    }
+                }
+                else {
+                    try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+                        record.writeText(writer);
+                    }
                 }
             } catch (IOException e) {
                 // Handle exception (show an alert to the user or log it)
@@ -1,5 +1,12 @@
 package com.example.connect4;
 
+import com.example.connect4.engine.BoardGeometry;
+import com.example.connect4.engine.Difficulty;
+import com.example.connect4.engine.Game;
+import com.example.connect4.engine.GameConfig;
+import com.example.connect4.engine.GameRecord;
+import com.example.connect4.engine.GameRecordReader;
+import com.example.connect4.engine.PonderingAI;
 import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.geometry.Rectangle2D;
@@ -14,17 +21,19 @@ import javafx.stage.FileChooser;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class GameSettingsManager {
     private GameController gameController;
-    private GameData gameData;
+    private Game game;
 
     public GameSettingsManager() {
-        gameData = new GameData(GameConfig.ROWS, GameConfig.COLUMNS);
-        gameController = new GameController(gameData);
+        game = new Game();
+        gameController = new GameController(game);
     }
 
     public void showSettingsWindow(Stage primaryStage) {
@@ -54,7 +63,7 @@ public class GameSettingsManager {
         Label difficultyLabel = new Label("Select difficulty:");
         difficultyLabel.getStyleClass().add("menu-label");
         ComboBox<String> difficultyChoice = new ComboBox<>();
-        difficultyChoice.getItems().addAll("Easy", "Hard");
+        difficultyChoice.getItems().addAll(Difficulty.displayNames());
         difficultyChoice.setValue("Easy"); // Set the default value to "Easy"
         difficultyChoice.getStyleClass().add("combo-box");
 
@@ -76,8 +85,15 @@ public class GameSettingsManager {
         loadButton.setPrefWidth(200);
         loadButton.setPrefHeight(30);
 
+        // Watch button, AI against AI at the chosen difficulty on many boards
+        Button watchButton = new Button("Watch AI Games");
+        watchButton.getStyleClass().add("menu-button");
+        watchButton.setOnAction(e -> { watchSelfPlay(difficultyChoice.getValue()); });
+        watchButton.setPrefWidth(200);
+        watchButton.setPrefHeight(30);
+
         // Add all to VBox
-        settingsLayout.getChildren().addAll(gameTitle, firstPlayerLabel, firstPlayerChoice, difficultyLabel, difficultyChoice, startButton, loadButton);
+        settingsLayout.getChildren().addAll(gameTitle, firstPlayerLabel, firstPlayerChoice, difficultyLabel, difficultyChoice, startButton, loadButton, watchButton);
 
         // Add settingsLayout to the root StackPane on top of the background
         root.getChildren().add(settingsLayout);
@@ -95,11 +111,7 @@ public class GameSettingsManager {
     private void startGame(Stage primaryStage, String firstPlayer, String difficulty) {
         // Set AI difficulty based on choice
         gameController.setDifficulty(difficulty);
-        if (difficulty.equals("Easy")) {
-            gameController.setAiPlayer(new RandomAI());
-        } else {
-            gameController.setAiPlayer(new ThoughtfulAI());
-        }
+        gameController.setAiPlayer(PonderingAI.forDifficulty(difficulty));
 
         // Decide who makes the first move
         gameController.setWhoPlaysFirst(firstPlayer);
@@ -120,81 +132,70 @@ public class GameSettingsManager {
         });
     }
 
+    // Open a window of live self-play games; closing it stops them
+    private void watchSelfPlay(String chosenDifficulty) {
+        String difficulty = Difficulty.named(chosenDifficulty) != null ? chosenDifficulty : Difficulty.EXPERT.getDisplayName();
+        SpectatorView view = new SpectatorView(ViewConfig.SPECTATOR_BOARDS, BoardGeometry.STANDARD);
+        int threads = Math.max(1, Math.min(ViewConfig.SPECTATOR_MAX_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+        SelfPlay selfPlay = new SelfPlay(view, difficulty, threads, ViewConfig.SPECTATOR_ROUND_DELAY_MILLIS);
+
+        Rectangle2D screenBounds = Screen.getPrimary().getVisualBounds();
+        Stage stage = new Stage();
+        stage.setTitle("Connect 4 - " + difficulty + " self-play");
+        stage.setScene(new Scene(view.getRoot(), screenBounds.getWidth() * 0.8, screenBounds.getHeight() * 0.8));
+        stage.setOnHidden(event -> {
+            selfPlay.stop();
+            view.stop();
+        });
+        stage.show();
+        view.start();
+        selfPlay.start();
+    }
+
     // Load the game state from a file
     public void loadGame(Stage primaryStage) {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Load Game");
         fileChooser.getExtensionFilters().addAll(
                 new FileChooser.ExtensionFilter("Text Files", "*.txt"),
+                new FileChooser.ExtensionFilter("Game Archives", "*" + GameController.ARCHIVE_EXTENSION),
                 new FileChooser.ExtensionFilter("All Files", "*.*")
         );
         File file = fileChooser.showOpenDialog(primaryStage);
 
         if (file != null) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                gameController.getGameData().restartGame(); // Reset the game state
-                String line;
-                boolean logOfMovesStarted = false;
-                String lastPlayer = null;
-
-                while ((line = reader.readLine()) != null) {
-                    if (line.startsWith("AI plays first")) {
-                        gameController.setWhoPlaysFirst("AI");
-                    }
-                    else if (line.startsWith("Player plays first")) {
-                        gameController.setWhoPlaysFirst("Player");
-                    }
-                    else if (line.startsWith("Difficulty:")) {
-                        String difficulty = line.split(":")[1].trim();
-                        gameController.setDifficulty(difficulty);
-                        if (difficulty.equals("Easy")) {
-                            gameController.setAiPlayer(new RandomAI());
-                        } else {
-                            gameController.setAiPlayer(new ThoughtfulAI());
-                        }
-                    }
-                    else if (line.equals("Log of moves:")) {
-                        logOfMovesStarted = true;
-                    }
-                    else if (logOfMovesStarted) {
-                        String[] parts = line.split(":")[1].split(",");
-                        String player = line.split(":")[0].trim();
-                        int column = Integer.parseInt(parts[0].trim().split(" ")[1].trim());
-                        int row = Integer.parseInt(parts[1].trim().split(" ")[1].trim());
-
-                        // Apply the move in file
-                        gameController.getGameData().applyMove(player, column, row);
-
-                        // Update the UI
-                        if (player.equals("PLAYER")) {
-                            gameController.getGameView().updateUI(row, column, GameConfig.PLAYER);
-                        } else {
-                            gameController.getGameView().updateUI(row, column, GameConfig.AI);
-                        }
-
-                        lastPlayer = player;
-                    }
+            try {
+                GameRecord record = readRecord(file.toPath());
+                if (record == null) throw new IOException("The archive holds no games");
+                if (!record.getGeometry().isStandard()) {
+                    throw new IOException("This is a " + record.getGeometry() + " game, the board here is 7x6 connect four");
                 }
 
-                // Start the game after loading
-                if (lastPlayer != null) {
-                    if (lastPlayer.equals("PLAYER")) {
-                        // AI plays next move
-                        Platform.runLater(() -> { gameController.aiMakeMove(); });
-                    }
-
-                    // Set up Scene and Window Screen
-                    Rectangle2D screenBounds = Screen.getPrimary().getVisualBounds();
-                    Scene scene = new Scene(gameController.getGameView().getRoot(), screenBounds.getWidth(), screenBounds.getHeight());
-                    scene.getStylesheets().add(getClass().getResource("/stylesheet.css").toExternalForm());
-                    primaryStage.setMaximized(true);
-                    primaryStage.setScene(scene);
-                    primaryStage.show();
-                    primaryStage.setOnCloseRequest(event -> {
-                        event.consume(); // Prevent the window from closing immediately
-                        gameController.showExitConfirmation();
-                    });
+                String difficulty = record.getDifficulty() != null ? record.getDifficulty() : "Easy";
+                gameController.setDifficulty(difficulty);
+                gameController.setAiPlayer(PonderingAI.forDifficulty(difficulty));
+                gameController.setWhoPlaysFirst(record.getFirstToMove() == GameConfig.AI ? "AI" : "Player"); // Resets the game
+
+                // Apply the moves in file, then draw the board once
+                record.replay(game);
+                gameController.getGameView().showPosition(game.getPosition());
+
+                // AI plays next move
+                if (!game.isOver() && game.getToMove() == GameConfig.AI) {
+                    Platform.runLater(() -> { gameController.aiMakeMove(); });
                 }
+
+                // Set up Scene and Window Screen
+                Rectangle2D screenBounds = Screen.getPrimary().getVisualBounds();
+                Scene scene = new Scene(gameController.getGameView().getRoot(), screenBounds.getWidth(), screenBounds.getHeight());
+                scene.getStylesheets().add(getClass().getResource("/stylesheet.css").toExternalForm());
+                primaryStage.setMaximized(true);
+                primaryStage.setScene(scene);
+                primaryStage.show();
+                primaryStage.setOnCloseRequest(event -> {
+                    event.consume(); // Prevent the window from closing immediately
+                    gameController.showExitConfirmation();
+                });
             }
             catch (IOException e) {
                 e.printStackTrace();
@@ -203,4 +204,19 @@ public class GameSettingsManager {
             }
         }
     }
+
+    // A text save file, or the most recent game of a binary game archive
+    private static GameRecord readRecord(Path path) throws IOException {
+        if (GameRecordReader.isArchive(path)) {
+            try (GameRecordReader reader = new GameRecordReader(path)) {
+                GameRecord last = null;
+                GameRecord record;
+                while ((record = reader.read()) != null) last = record;
+                return last;
+            }
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return GameRecord.readText(reader);
+        }
+    }
 }
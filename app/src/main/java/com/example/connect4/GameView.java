@@ -13,6 +13,9 @@ import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.geometry.Insets;
 
+import com.example.connect4.engine.GameConfig;
+import com.example.connect4.engine.Position;
+
 import java.util.ArrayList;
 
 public class GameView {
@@ -56,16 +59,16 @@ public class GameView {
 
     private void initializeGridPane() {
         gridPane.setAlignment(Pos.CENTER);
-        gridPane.setHgap(GameConfig.CELL_SPACING);
-        gridPane.setVgap(GameConfig.CELL_SPACING);
+        gridPane.setHgap(ViewConfig.CELL_SPACING);
+        gridPane.setVgap(ViewConfig.CELL_SPACING);
 
         circles = new ArrayList<>();
 
         for (int i = 0; i < GameConfig.ROWS; i++) {
             ArrayList<Circle> circleRow = new ArrayList<>();
             for (int j = 0; j < GameConfig.COLUMNS; j++) {
-                Circle circle = new Circle(GameConfig.CELL_SIZE, GameConfig.COLOR_CIRCLE);
-                circle.setStroke(GameConfig.COLOR_STROKE);
+                Circle circle = new Circle(ViewConfig.CELL_SIZE, ViewConfig.COLOR_CIRCLE);
+                circle.setStroke(ViewConfig.COLOR_STROKE);
                 GridPane.setHalignment(circle, HPos.CENTER);
                 gridPane.add(circle, j, i);
                 circleRow.add(circle);
@@ -109,15 +112,26 @@ public class GameView {
 
     public void updateUI(int row, int column, int player) {
         if (row != GameConfig.INVALID) {
-            Color color = (player == GameConfig.PLAYER) ? GameConfig.COLOR_PLAYER : GameConfig.COLOR_AI;
+            Color color = (player == GameConfig.PLAYER) ? ViewConfig.COLOR_PLAYER : ViewConfig.COLOR_AI;
             getCircle(row, column).setFill(color);
         }
     }
 
+    // Redraw every cell from a position, e.g. after loading a game or jumping through its history
+    public void showPosition(Position position) {
+        for (int i = 0; i < GameConfig.ROWS; i++) {
+            for (int j = 0; j < GameConfig.COLUMNS; j++) {
+                int cell = position.getCell(i, j);
+                if (cell == GameConfig.EMPTY) getCircle(i, j).setFill(ViewConfig.COLOR_CIRCLE);
+                else updateUI(i, j, cell);
+            }
+        }
+    }
+
     public void restartUI() {
         for (int i = 0; i < GameConfig.ROWS; i++) {
             for (int j = 0; j < GameConfig.COLUMNS; j++) {
-                getCircle(i, j).setFill(GameConfig.COLOR_CIRCLE);
+                getCircle(i, j).setFill(ViewConfig.COLOR_CIRCLE);
             }
         }
     }
@@ -0,0 +1,86 @@
+package com.example.connect4;
+
+import com.example.connect4.engine.AI;
+import com.example.connect4.engine.Difficulty;
+import com.example.connect4.engine.Game;
+import com.example.connect4.engine.GameConfig;
+import com.example.connect4.engine.Position;
+
+// Live AI-vs-AI games for a SpectatorView, one per board, played on background threads.
+// Thread t plays the boards t, t + threads, ... one move at a time in turn, so every game advances at
+// the same pace. A finished game stays on its board for a few rounds, then starts over with the other
+// side first. Updates go straight to the view, which draws them at its next pulse.
+// Every level has a node budget, so a round costs at most one budget per board. Each thread plays
+// both sides with one engine, a table per thread whatever the number of boards.
+public class SelfPlay {
+    private static final int HOLD_ROUNDS = 20; // Rounds a finished game stays on its board
+
+    private final SpectatorView view;
+    private final Difficulty level;
+    private final long moveDelayMillis;
+    private final Thread[] threads;
+    private volatile boolean running;
+
+    public SelfPlay(SpectatorView view, String difficulty, int threadCount, long moveDelayMillis) {
+        Difficulty level = Difficulty.named(difficulty);
+        if (level == null) throw new IllegalArgumentException("Unknown difficulty: " + difficulty);
+        this.view = view;
+        this.level = level;
+        this.moveDelayMillis = moveDelayMillis;
+        threads = new Thread[Math.max(1, Math.min(threadCount, view.getBoardCount()))];
+    }
+
+    public void start() {
+        running = true;
+        for (int t = 0; t < threads.length; t++) {
+            int first = t;
+            threads[t] = new Thread(() -> play(first), "self-play-" + t);
+            threads[t].setDaemon(true); // Never keeps the app from exiting
+            threads[t].start();
+        }
+    }
+
+    // Ask the threads to finish their current move and end
+    public void stop() {
+        running = false;
+        for (Thread thread : threads) {
+            if (thread != null) thread.interrupt(); // Engines treat an interrupt as running out of time
+        }
+    }
+
+    private void play(int first) {
+        int count = (view.getBoardCount() - first + threads.length - 1) / threads.length;
+        Game[] games = new Game[count];
+        int[] finishedRounds = new int[count];
+        AI engine = level.createAI(); // Positions hash with the side to move, so one table serves both sides
+        for (int i = 0; i < count; i++) {
+            games[i] = new Game(view.getGeometry(), i % 2 == 0 ? GameConfig.PLAYER : GameConfig.AI);
+            view.show(first + i * threads.length, games[i].getPosition(), games[i].getStatus());
+        }
+
+        while (running) {
+            for (int i = 0; i < count && running; i++) {
+                Game game = games[i];
+                if (game.isOver()) {
+                    if (++finishedRounds[i] < HOLD_ROUNDS) continue;
+                    finishedRounds[i] = 0;
+                    game.newGame(Position.opponent(game.getFirstToMove()));
+                }
+                else {
+                    Position position = game.getPosition();
+                    int column = engine.chooseColumn(position);
+                    if (!running) return; // Stopped during the search, the move may be a guess
+                    game.play(column);
+                }
+                view.show(first + i * threads.length, game.getPosition(), game.getStatus());
+            }
+            if (moveDelayMillis > 0) {
+                try {
+                    Thread.sleep(moveDelayMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
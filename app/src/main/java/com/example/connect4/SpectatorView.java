@@ -0,0 +1,183 @@
+package com.example.connect4;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.paint.Color;
+
+import com.example.connect4.engine.BoardGeometry;
+import com.example.connect4.engine.Game;
+import com.example.connect4.engine.GameConfig;
+import com.example.connect4.engine.Position;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Hundreds of boards drawn on one Canvas, for watching many live games at once.
+// show() may be called from any thread: it only stores the stones of a board and marks it dirty. Once per
+// pulse an AnimationTimer repaints on the FX thread the cells whose stones changed since they were last
+// drawn, plus the frame of a board whose status changed, so a pulse costs the moves played since the last
+// one whatever the number of boards. A board updated twice within a pulse is drawn once, in its last state.
+public class SpectatorView {
+    private static final int CELL = ViewConfig.SPECTATOR_CELL_SIZE;
+    private static final int FRAME = 2; // Border showing the status of a board
+    private static final int GAP = 6; // Between boards
+
+    private final BoardGeometry geometry;
+    private final int boards;
+    private final int boardsPerRow;
+    private final int boardWidth;
+    private final int boardHeight;
+    private final Canvas canvas;
+    private final ScrollPane root;
+    private final AnimationTimer timer;
+
+    // Latest state per board, written by the game threads
+    private final AtomicLongArray playerStones;
+    private final AtomicLongArray aiStones;
+    private final AtomicIntegerArray statuses;
+    private final AtomicIntegerArray dirty; // 1 if the board changed since it was drawn
+
+    // What is on the canvas, only touched on the FX thread
+    private final long[] drawnPlayerStones;
+    private final long[] drawnAiStones;
+    private final int[] drawnStatuses;
+
+    public SpectatorView(int boards, BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.boards = boards;
+        boardsPerRow = Math.max(1, (int) Math.ceil(Math.sqrt(boards)));
+        boardWidth = geometry.getColumns() * CELL + 2 * FRAME;
+        boardHeight = geometry.getRows() * CELL + 2 * FRAME;
+        int rowsOfBoards = (boards + boardsPerRow - 1) / boardsPerRow;
+        canvas = new Canvas(boardsPerRow * (boardWidth + GAP) + GAP, rowsOfBoards * (boardHeight + GAP) + GAP);
+        root = new ScrollPane(canvas);
+
+        playerStones = new AtomicLongArray(boards);
+        aiStones = new AtomicLongArray(boards);
+        statuses = new AtomicIntegerArray(boards);
+        dirty = new AtomicIntegerArray(boards);
+        drawnPlayerStones = new long[boards];
+        drawnAiStones = new long[boards];
+        drawnStatuses = new int[boards];
+
+        drawAll();
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                repaintDirty();
+            }
+        };
+    }
+
+    public ScrollPane getRoot() {
+        return root;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public int getBoardCount() {
+        return boards;
+    }
+
+    // Repaint once per pulse while started
+    public void start() {
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+    }
+
+    // Show a position and the status of its game on a board; safe from any thread, drawn at the next pulse.
+    // The two stone masks are stored apart, a pulse in between may draw the new stone of one side before
+    // the other's, which the next pulse puts right.
+    public void show(int board, Position position, Game.Status status) {
+        if (position.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Spectator view of " + geometry + " boards cannot show a " + position.getGeometry() + " game");
+        }
+        playerStones.set(board, position.getStones(GameConfig.PLAYER));
+        aiStones.set(board, position.getStones(GameConfig.AI));
+        statuses.set(board, status.ordinal());
+        dirty.set(board, 1);
+    }
+
+    private void repaintDirty() {
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        for (int board = 0; board < boards; board++) {
+            if (dirty.get(board) == 0) continue;
+            dirty.set(board, 0); // Before reading, so a show() racing with this pulse is drawn by the next one
+
+            long player = playerStones.get(board);
+            long ai = aiStones.get(board);
+            long changed = (player ^ drawnPlayerStones[board]) | (ai ^ drawnAiStones[board]);
+            while (changed != 0) {
+                int index = Long.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+                long bit = 1L << index;
+                Color color = (player & bit) != 0 ? ViewConfig.COLOR_PLAYER
+                        : (ai & bit) != 0 ? ViewConfig.COLOR_AI : ViewConfig.COLOR_CIRCLE;
+                drawCell(graphics, board, index / geometry.getStride(), index % geometry.getStride(), color);
+            }
+            drawnPlayerStones[board] = player;
+            drawnAiStones[board] = ai;
+
+            int status = statuses.get(board);
+            if (status != drawnStatuses[board]) {
+                drawFrame(graphics, board, status);
+                drawnStatuses[board] = status;
+            }
+        }
+    }
+
+    private void drawAll() {
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        graphics.setFill(ViewConfig.SPECTATOR_BACKGROUND);
+        graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        for (int board = 0; board < boards; board++) {
+            drawFrame(graphics, board, Game.Status.IN_PROGRESS.ordinal());
+            for (int column = 0; column < geometry.getColumns(); column++) {
+                for (int height = 0; height < geometry.getRows(); height++) {
+                    drawCell(graphics, board, column, height, ViewConfig.COLOR_CIRCLE);
+                }
+            }
+        }
+    }
+
+    private double boardX(int board) {
+        return GAP + (board % boardsPerRow) * (boardWidth + GAP);
+    }
+
+    private double boardY(int board) {
+        return GAP + (board / boardsPerRow) * (boardHeight + GAP);
+    }
+
+    // Board colour under the cell first, so repainting a cell never blends with what was drawn before
+    private void drawCell(GraphicsContext graphics, int board, int column, int height, Color color) {
+        double x = boardX(board) + FRAME + column * CELL;
+        double y = boardY(board) + FRAME + (geometry.getRows() - 1 - height) * CELL;
+        graphics.setFill(ViewConfig.COLOR_STROKE);
+        graphics.fillRect(x, y, CELL, CELL);
+        graphics.setFill(color);
+        graphics.fillOval(x + 1, y + 1, CELL - 2, CELL - 2);
+    }
+
+    // Outline in the colour of the winner, grey for a draw, the board colour while the game runs
+    private void drawFrame(GraphicsContext graphics, int board, int status) {
+        Color color = ViewConfig.COLOR_STROKE;
+        if (status == Game.Status.PLAYER_WON.ordinal()) color = ViewConfig.COLOR_PLAYER;
+        else if (status == Game.Status.AI_WON.ordinal()) color = ViewConfig.COLOR_AI;
+        else if (status == Game.Status.DRAW.ordinal()) color = Color.GREY;
+
+        double x = boardX(board);
+        double y = boardY(board);
+        graphics.setFill(color);
+        graphics.fillRect(x, y, boardWidth, FRAME);
+        graphics.fillRect(x, y + boardHeight - FRAME, boardWidth, FRAME);
+        graphics.fillRect(x, y, FRAME, boardHeight);
+        graphics.fillRect(x + boardWidth - FRAME, y, FRAME, boardHeight);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.connect4;
+
+import javafx.scene.paint.Color;
+
+// Look of the board; the game rules and sizes live in GameConfig of the engine
+public class ViewConfig {
+    public static final int CELL_SIZE = 25;
+    public static final int CELL_SPACING = 10;
+    public static final Color COLOR_CIRCLE = Color.WHITE;
+    public static final Color COLOR_STROKE = Color.BLUE;
+    public static final Color COLOR_PLAYER = Color.RED;
+    public static final Color COLOR_AI = Color.YELLOW;
+    public static final int SPECTATOR_CELL_SIZE = 10; // Cells of the boards in SpectatorView
+    public static final Color SPECTATOR_BACKGROUND = Color.gray(0.15);
+    public static final int SPECTATOR_BOARDS = 256;
+    public static final long SPECTATOR_ROUND_DELAY_MILLIS = 100; // Pause after every game has moved once
+    public static final int SPECTATOR_MAX_THREADS = 4; // Self-play threads, each holds one engine
+}
@@ -1,8 +1,9 @@
 module com.example.connect4 {
     requires javafx.controls;
     requires javafx.fxml;
+    requires com.example.connect4.engine;
 
 
     opens com.example.connect4 to javafx.fxml;
     exports com.example.connect4;
-}
\ No newline at end of file
+}
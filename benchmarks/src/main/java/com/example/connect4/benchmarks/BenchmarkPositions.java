@@ -0,0 +1,65 @@
+package com.example.connect4.benchmarks;
+
+import com.example.connect4.engine.GameConfig;
+import com.example.connect4.engine.Position;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+// Fixed suite of positions shared by all benchmarks, so numbers stay comparable between runs
+public final class BenchmarkPositions {
+    // Names usable as @Param values
+    public static final String EMPTY = "empty";
+    public static final String GAME1 = "game1";
+    public static final String OPENING = "opening";
+    public static final String MIDDLE = "middle";
+    public static final String LATE = "late";
+
+    private BenchmarkPositions() {
+    }
+
+    public static Position get(String name) {
+        switch (name) {
+            case EMPTY: return new Position();
+            case GAME1: return fromGameFile("/game1.txt");
+            case OPENING: return fromMoves("3324");
+            case MIDDLE: return fromMoves("332415526016");
+            case LATE: return fromMoves("33241552601644005566112");
+            default: throw new IllegalArgumentException("Unknown benchmark position: " + name);
+        }
+    }
+
+    // Columns played alternately, the player first, as digits 0-6
+    public static Position fromMoves(String moves) {
+        Position position = new Position(GameConfig.PLAYER);
+        for (char move : moves.toCharArray()) {
+            position.play(move - '0');
+        }
+        return position;
+    }
+
+    // Replay the move lines ("Player: column 3, row 5") of a saved game on the classpath; game1.txt is
+    // the app's saved game, added to the classpath by the benchmarks pom
+    public static Position fromGameFile(String resource) {
+        Position position = new Position(GameConfig.PLAYER);
+        try (InputStream input = BenchmarkPositions.class.getResourceAsStream(resource)) {
+            if (input == null) throw new IllegalArgumentException("Missing resource " + resource);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int columnStart = line.indexOf("column ");
+                if (columnStart < 0) continue;
+                int column = Integer.parseInt(line.substring(columnStart + 7, line.indexOf(',', columnStart)).trim());
+                int player = line.toUpperCase().startsWith("AI") ? GameConfig.AI : GameConfig.PLAYER;
+                position.play(column, player);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return position;
+    }
+}
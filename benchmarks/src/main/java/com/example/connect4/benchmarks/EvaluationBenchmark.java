@@ -0,0 +1,64 @@
+package com.example.connect4.benchmarks;
+
+import com.example.connect4.engine.Evaluator;
+import com.example.connect4.engine.Position;
+import com.example.connect4.engine.ThreatEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Leaf evaluation throughput: the line-scanning Evaluator against the incremental ThreatEvaluator
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+    @Param({BenchmarkPositions.GAME1, BenchmarkPositions.MIDDLE, BenchmarkPositions.LATE})
+    public String position;
+
+    private Position evaluated;
+    private final Evaluator evaluator = new Evaluator();
+    private final ThreatEvaluator threatEvaluator = new ThreatEvaluator();
+    private int column;
+
+    @Setup
+    public void setup() {
+        evaluated = BenchmarkPositions.get(position);
+        threatEvaluator.reset(evaluated);
+        column = 0;
+        while (!evaluated.canPlay(column)) column++;
+    }
+
+    @Benchmark
+    public int evaluator() {
+        return evaluator.evaluate(evaluated);
+    }
+
+    @Benchmark
+    public int threatEvaluator() {
+        return threatEvaluator.evaluate(evaluated);
+    }
+
+    // What a search pays per node: update on play, evaluate, update on undo
+    @Benchmark
+    public int threatEvaluatorPlayUndo() {
+        threatEvaluator.play(evaluated, column);
+        evaluated.play(column);
+        int score = threatEvaluator.evaluate(evaluated);
+        evaluated.undo(column);
+        threatEvaluator.undo(evaluated, column);
+        return score;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.connect4.benchmarks;
+
+import com.example.connect4.engine.GameConfig;
+import com.example.connect4.engine.GameRecord;
+import com.example.connect4.engine.Perft;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Time of a perft count on one thread, per board implementation: divide the count by the score to get
+// positions per second. Same positions as the other benchmarks, given as moves since Perft takes a GameRecord.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+    @Param({"array", "gamedata", "position", "bitboard"})
+    public String implementation;
+
+    @Param({"", "3324", "332415526016"})
+    public String moves;
+
+    @Param({"6"})
+    public int depth;
+
+    private Perft.Implementation walker;
+    private GameRecord start;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        for (Perft.Implementation candidate : Perft.Implementation.values()) {
+            if (candidate.getDisplayName().equals(implementation)) walker = candidate;
+        }
+        if (walker == null) throw new IllegalArgumentException("Unknown implementation: " + implementation);
+
+        byte[] columns = new byte[moves.length()];
+        for (int i = 0; i < columns.length; i++) columns[i] = (byte) (moves.charAt(i) - '0');
+        start = new GameRecord(GameConfig.PLAYER, null, columns);
+        pool = new ForkJoinPool(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long perft() {
+        return Perft.count(walker, start, depth, pool);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.connect4.benchmarks;
+
+import com.example.connect4.engine.AI;
+import com.example.connect4.engine.AlphaBetaAI;
+import com.example.connect4.engine.ParallelAI;
+import com.example.connect4.engine.Position;
+import com.example.connect4.engine.ThoughtfulAI;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-move latency (SampleTime reports p50/p90/p99) and nodes per second of a full chooseColumn.
+// Each invocation uses a fresh engine so a warm transposition table does not hide the search cost.
+// Allocation rate: java -jar target/benchmarks.jar SearchBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({"AlphaBetaAI", "ThoughtfulAI", "ParallelAI"})
+    public String engine;
+
+    @Param({BenchmarkPositions.EMPTY, BenchmarkPositions.GAME1, BenchmarkPositions.OPENING,
+            BenchmarkPositions.MIDDLE, BenchmarkPositions.LATE})
+    public String position;
+
+    private Position searchPosition;
+    private AI ai;
+
+    // Reported next to the timings as nodes per second
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class NodeCounter {
+        public long nodes;
+    }
+
+    @Setup(Level.Trial)
+    public void loadPosition() {
+        searchPosition = BenchmarkPositions.get(position);
+    }
+
+    @Setup(Level.Invocation)
+    public void createEngine() {
+        switch (engine) {
+            case "AlphaBetaAI": ai = new AlphaBetaAI(); break;
+            case "ThoughtfulAI": ai = new ThoughtfulAI(); break;
+            case "ParallelAI": ai = new ParallelAI(); break;
+            default: throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void shutdownEngine() {
+        if (ai instanceof ParallelAI) ((ParallelAI) ai).shutdown();
+    }
+
+    @Benchmark
+    public int chooseColumn() {
+        return ai.chooseColumn(searchPosition);
+    }
+
+    // Aux counters are only reported in throughput modes, so nodes per second gets its own benchmark
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int nodesPerSecond(NodeCounter counter) {
+        int column = ai.chooseColumn(searchPosition);
+        counter.nodes += ai.getNodeCount();
+        return column;
+    }
+}
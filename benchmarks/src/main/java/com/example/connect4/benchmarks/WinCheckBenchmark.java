@@ -0,0 +1,67 @@
+package com.example.connect4.benchmarks;
+
+import com.example.connect4.engine.GameConfig;
+import com.example.connect4.engine.GameData;
+import com.example.connect4.engine.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Win detection ops/sec: the checks of the four lines through one cell (GameData.checkWin, Position.isWinAt
+// and isWinningMove) against the scan of the whole board (Position.lastMoverWon)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WinCheckBenchmark {
+    @Param({BenchmarkPositions.GAME1, BenchmarkPositions.MIDDLE, BenchmarkPositions.LATE})
+    public String position;
+
+    private Position bitboard;
+    private GameData gameData;
+    private int row;
+    private int column;
+
+    @Setup
+    public void setup() {
+        bitboard = BenchmarkPositions.get(position);
+        gameData = new GameData(bitboard.toBoard());
+
+        // Check around the highest stone of the first non-empty column
+        column = 0;
+        while (bitboard.getHeight(column) == 0) column++;
+        row = GameConfig.ROWS - bitboard.getHeight(column);
+    }
+
+    @Benchmark
+    public boolean gameDataCheckWin() {
+        return gameData.checkWin(row, column);
+    }
+
+    @Benchmark
+    public boolean positionLastMoverWon() {
+        return bitboard.lastMoverWon();
+    }
+
+    @Benchmark
+    public boolean positionIsWinAt() {
+        return bitboard.isWinAt(column);
+    }
+
+    @Benchmark
+    public boolean positionIsWinningMove() {
+        return bitboard.canPlay(column) && bitboard.isWinningMove(column);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.connect4.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public abstract class AI {
+    protected final Random random = new Random(); // Breaks ties between equally good moves
+    private final List<SearchListener> searchListeners = new CopyOnWriteArrayList<>();
+
+    // AI for a difficulty level offered to players, see Difficulty; unknown names play Hard
+    public static AI forDifficulty(String difficulty) {
+        Difficulty level = Difficulty.named(difficulty);
+        return (level != null ? level : Difficulty.HARD).createAI();
+    }
+
+    public abstract int chooseColumn(ArrayList<ArrayList<Integer>> board);
+
+    // Choose a column for the side to move; engines that search bitboards override this
+    public int chooseColumn(Position position) {
+        return chooseColumn(position.toBoard());
+    }
+
+    // Make the random choices reproducible
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    // Forget what was learned in earlier games, so a game plays the same whatever came before it
+    public void newGame() {
+    }
+
+    // Number of nodes searched for the last move, 0 for engines that do not search
+    public long getNodeCount() {
+        return 0;
+    }
+
+    // Receive SearchStats after every search of engines that search (AlphaBetaAI, ThoughtfulAI, ParallelAI, PerfectAI)
+    public void addSearchListener(SearchListener listener) {
+        searchListeners.add(listener);
+    }
+
+    public void removeSearchListener(SearchListener listener) {
+        searchListeners.remove(listener);
+    }
+
+    // Engines skip gathering stats nobody listens to
+    protected boolean hasSearchListeners() {
+        return !searchListeners.isEmpty();
+    }
+
+    // A listener only observes: one that throws is reported and skipped, the search keeps its move
+    protected void fireSearchFinished(SearchStats stats) {
+        for (SearchListener listener : searchListeners) {
+            try {
+                listener.searchFinished(this, stats);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
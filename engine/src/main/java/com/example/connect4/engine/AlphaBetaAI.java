@@ -0,0 +1,431 @@
+package com.example.connect4.engine;
+
+import java.util.ArrayList;
+
+// Negamax with alpha-beta pruning over the bitboard, scored by the incremental ThreatEvaluator.
+// Searches by iterative deepening, either up to a fixed depth or until a per-move time or node budget runs out.
+// A node budget bounds the work of a move whatever the position and, unlike time, plays the same on any machine.
+public class AlphaBetaAI extends AI {
+    private static final int WINNING_SCORE = Evaluator.WINNING_SCORE;
+    private static final int INFINITY = WINNING_SCORE * 2;
+    static final int DEFAULT_DEPTH = 7;
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+    private static final int MAX_PLY = BoardGeometry.MAX_CELLS + 1; // Any board the bitboard holds
+    private static final int KILLER_SCORE = Integer.MAX_VALUE / 2; // Killers are tried before any history move
+    private static final int TABLE_MOVE_SCORE = KILLER_SCORE + 1; // The stored best move is tried first
+    public static final int DECIDED_SCORE = WINNING_SCORE - MAX_PLY; // Scores beyond this are forced wins or losses
+    private static final int CLOCK_CHECK_MASK = 255; // Read the clock every 256 nodes
+    static final String CACHE_KIND = "alphabeta"; // Table of a PositionCache, scored with the default weights
+
+    private final int maxDepth;
+    private final ThreatEvaluator evaluator = new ThreatEvaluator();
+    private final TranspositionTable table;
+
+    private int[] centerOrder = BoardGeometry.STANDARD.centerOrder(); // Of the board being searched
+    private final int[][] moveOrder = new int[MAX_PLY][BoardGeometry.MAX_COLUMNS]; // Per-ply buffers so ordering never allocates
+    private final int[][] orderScores = new int[MAX_PLY][BoardGeometry.MAX_COLUMNS];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] history = new int[2][BoardGeometry.MAX_COLUMNS]; // Indexed by player - 1
+
+    private long nodeCount;
+    private long tableProbes;
+    private long tableHits;
+    private long cutoffs;
+    private int maxPly; // Deepest ply visited by the last search
+    private long timeBudgetMillis; // 0 searches to maxDepth without a time limit
+    private long deadline;
+    private long nodeBudget; // 0 searches without a node limit
+    private long nodeLimit;
+    private int evaluationNoise; // Root scores vary by up to this much either way before the move is chosen
+    private boolean aborted;
+    private int searchDepth; // Depth of the current iteration
+    private int completedDepth;
+    private int lastScore; // Best root score of the deepest finished iteration
+
+    private final boolean sharedTable; // The owner of a shared table ages it, not this engine
+    private final boolean cached; // Searching into a PositionCache table
+    private int helperIndex; // Non-zero for Lazy SMP helper threads, varies their depth and root order
+    private volatile boolean stopRequested;
+
+    public AlphaBetaAI() {
+        this(DEFAULT_DEPTH);
+    }
+
+    public AlphaBetaAI(int maxDepth) {
+        this(maxDepth, DEFAULT_TABLE_MEGABYTES);
+    }
+
+    public AlphaBetaAI(int maxDepth, int tableMegabytes) {
+        this(maxDepth, new TranspositionTable(tableMegabytes), false, false);
+    }
+
+    // Engine searching into a table shared with other engines, see ParallelAI
+    AlphaBetaAI(int maxDepth, TranspositionTable table) {
+        this(maxDepth, table, true, false);
+    }
+
+    // Engine keeping its results in a cache shared across games; newGame no longer forgets them, so
+    // games depend on what was played before
+    public AlphaBetaAI(int maxDepth, PositionCache cache) {
+        this(maxDepth, cache, CACHE_KIND);
+    }
+
+    // Same, in a table of its own kind, so engines of different strength do not read each other's results
+    AlphaBetaAI(int maxDepth, PositionCache cache, String cacheKind) {
+        this(maxDepth, cache.table(cacheKind), true, true);
+    }
+
+    private AlphaBetaAI(int maxDepth, TranspositionTable table, boolean sharedTable, boolean cached) {
+        this.maxDepth = maxDepth;
+        this.table = table;
+        this.sharedTable = sharedTable;
+        this.cached = cached;
+    }
+
+    // Number of nodes visited by the last search
+    @Override
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    // Deepest iteration the last search finished
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    // Score of the chosen move for the side to move, from the deepest finished iteration of the last search;
+    // above DECIDED_SCORE it is a forced win, below -DECIDED_SCORE a forced loss
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    // Search as deep as possible within this many milliseconds per move; 0 goes back to fixed depth
+    public void setTimeBudget(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    // Search as deep as possible within this many nodes per move; 0 goes back to fixed depth
+    public void setNodeBudget(long nodeBudget) {
+        this.nodeBudget = nodeBudget;
+    }
+
+    // Add random noise of up to this much either way to the score of every root move that is not a forced
+    // win or loss, so weaker play picks moves that look good rather than the best one; 0 turns it off.
+    // Root moves within twice the noise of the best get an exact score, the others can never be chosen.
+    // Moves that let the opponent win at once are never chosen while another move does not.
+    public void setEvaluationNoise(int evaluationNoise) {
+        this.evaluationNoise = evaluationNoise;
+    }
+
+    // Weights of open three and two in a row windows used by the evaluation; a PositionCache only holds
+    // scores of the default weights
+    public void setWeights(int threeInARowScore, int twoInARowScore) {
+        if (cached) throw new IllegalStateException("Engines searching into a PositionCache keep the default weights");
+        evaluator.setWeights(threeInARowScore, twoInARowScore);
+    }
+
+    @Override
+    public void newGame() {
+        if (!sharedTable) table.clear();
+    }
+
+    void setHelperIndex(int helperIndex) {
+        this.helperIndex = helperIndex;
+    }
+
+    // Ask a search running on another thread to finish with what it has
+    void setStopRequested(boolean stopRequested) {
+        this.stopRequested = stopRequested;
+    }
+
+    private void resetHeuristics() {
+        for (int[] killer : killers) {
+            killer[0] = GameConfig.INVALID;
+            killer[1] = GameConfig.INVALID;
+        }
+        for (int[] playerHistory : history) {
+            for (int j = 0; j < playerHistory.length; j++) playerHistory[j] = 0;
+        }
+    }
+
+    // Fill moveOrder[ply] with playable columns: table move, killers, then by history; ties keep center-first order
+    private int orderMoves(Position position, int ply, int tableMove) {
+        int[] moves = moveOrder[ply];
+        int[] scores = orderScores[ply];
+        int[] playerHistory = history[position.getToMove() - 1];
+        int count = 0;
+
+        for (int column : centerOrder) {
+            if (!position.canPlay(column)) continue;
+
+            int score = playerHistory[column];
+            if (column == tableMove) score = TABLE_MOVE_SCORE;
+            else if (column == killers[ply][0]) score = KILLER_SCORE;
+            else if (column == killers[ply][1]) score = KILLER_SCORE - 1;
+
+            // Insertion sort, strictly greater keeps the earlier (more central) column in front
+            int i = count++;
+            while (i > 0 && scores[i - 1] < score) {
+                moves[i] = moves[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            moves[i] = column;
+            scores[i] = score;
+        }
+        return count;
+    }
+
+    private void recordCutoff(Position position, int ply, int column, int remaining) {
+        if (killers[ply][0] != column) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = column;
+        }
+        history[position.getToMove() - 1][column] += remaining * remaining;
+    }
+
+    // Play and undo through here so the evaluator follows the position
+    private void play(Position position, int column) {
+        evaluator.play(position, column);
+        position.play(column);
+    }
+
+    private void undo(Position position, int column) {
+        position.undo(column);
+        evaluator.undo(position, column);
+    }
+
+    private int negamax(Position position, int ply, int alpha, int beta) {
+        if (++nodeCount > nodeLimit || ((nodeCount & CLOCK_CHECK_MASK) == 0 && isOutOfTime())) aborted = true;
+        if (aborted) return 0;
+        if (ply > maxPly) maxPly = ply;
+
+        // Winning moves are scored by the parent without being played, so the last move did not win
+        int value = evaluator.heuristic(position);
+        if (ply == searchDepth || position.isFull()) return value;
+
+        int remaining = searchDepth - ply;
+        long hash = position.getCanonicalHash(); // A position and its mirror image share one entry
+        long entry = table.probe(hash);
+        tableProbes++;
+        int tableMove = GameConfig.INVALID;
+        if (entry != 0) {
+            tableHits++;
+            tableMove = position.canonicalMove(TranspositionTable.move(entry));
+            if (TranspositionTable.depth(entry) >= remaining) {
+                int score = TranspositionTable.scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT) return score;
+                if (bound == TranspositionTable.LOWER && score >= beta) return score;
+                if (bound == TranspositionTable.UPPER && score <= alpha) return score;
+            }
+        }
+
+        int originalAlpha = alpha;
+        int count = orderMoves(position, ply, tableMove);
+        int best = -INFINITY;
+        int bestMove = GameConfig.INVALID;
+        for (int i = 0; i < count; i++) {
+            int column = moveOrder[ply][i];
+
+            int score;
+            if (position.isWinningMove(column)) {
+                score = WINNING_SCORE - (ply + 1); // What the child would return, without visiting it
+            }
+            else {
+                play(position, column);
+                score = -negamax(position, ply + 1, -beta, -alpha);
+                undo(position, column);
+                if (aborted) return 0; // Unfinished results must not reach the table
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = column;
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) {
+                    cutoffs++;
+                    recordCutoff(position, ply, column, remaining);
+                    break;
+                }
+            }
+        }
+
+        int bound = TranspositionTable.EXACT;
+        if (best <= originalAlpha) bound = TranspositionTable.UPPER;
+        else if (best >= beta) bound = TranspositionTable.LOWER;
+        table.store(hash, remaining, bound, TranspositionTable.scoreToTable(best, ply), position.canonicalMove(bestMove));
+        return best;
+    }
+
+    @Override
+    public int chooseColumn(ArrayList<ArrayList<Integer>> board) {
+        return chooseColumn(Position.fromBoard(board, GameConfig.AI));
+    }
+
+    // A stop request or an interrupt of the searching thread ends the search like an expired budget
+    private boolean isOutOfTime() {
+        return stopRequested || System.nanoTime() > deadline || Thread.currentThread().isInterrupted();
+    }
+
+    // Search every root move to searchDepth and return the best score
+    private int searchRoot(Position position, int[] rootMoves, int[] rootScores, int count) {
+        int best = -INFINITY;
+        for (int i = 0; i < count; i++) {
+            int column = rootMoves[i];
+
+            if (position.isWinningMove(column)) {
+                rootScores[i] = WINNING_SCORE - 1;
+            }
+            else {
+                // Lower bound of best - 1 so moves tying the best still get an exact score; with noise, every
+                // move the noise could lift above the best one does
+                play(position, column);
+                rootScores[i] = -negamax(position, 1, -INFINITY, -(best - 1 - 2 * evaluationNoise));
+                undo(position, column);
+                if (aborted) break;
+            }
+
+            if (rootScores[i] > best) best = rootScores[i];
+        }
+        return best;
+    }
+
+    // Stable sort of the root moves by score so the previous iteration's best move is searched first
+    private static void sortRootMoves(int[] rootMoves, int[] rootScores, int count) {
+        for (int i = 1; i < count; i++) {
+            int move = rootMoves[i];
+            int score = rootScores[i];
+            int j = i;
+            while (j > 0 && rootScores[j - 1] < score) {
+                rootMoves[j] = rootMoves[j - 1];
+                rootScores[j] = rootScores[j - 1];
+                j--;
+            }
+            rootMoves[j] = move;
+            rootScores[j] = score;
+        }
+    }
+
+    // Root move with the best score after noise; forced wins and losses keep their score. Moves that let
+    // the opponent win at once are left out first, the shallow searches of the weakest levels may not
+    // have seen the reply.
+    private int noisyChoice(Position position, int[] rootMoves, int[] scores, int count) {
+        boolean[] givesAwayWin = new boolean[count];
+        boolean safeMoveExists = false;
+        for (int i = 0; i < count; i++) {
+            givesAwayWin[i] = givesAwayWin(position, rootMoves[i]);
+            if (!givesAwayWin[i]) safeMoveExists = true;
+        }
+
+        int best = -INFINITY;
+        int choice = rootMoves[0];
+        for (int i = 0; i < count; i++) {
+            if (safeMoveExists && givesAwayWin[i]) continue;
+            int score = scores[i];
+            if (Math.abs(score) <= DECIDED_SCORE) score += random.nextInt(2 * evaluationNoise + 1) - evaluationNoise;
+            if (score > best) {
+                best = score;
+                choice = rootMoves[i];
+            }
+        }
+        return choice;
+    }
+
+    // True if the opponent has a winning reply to a move that does not win itself
+    private static boolean givesAwayWin(Position position, int column) {
+        if (position.isWinningMove(column)) return false;
+        position.play(column);
+        boolean opponentWins = false;
+        for (int reply = 0; reply < position.getGeometry().getColumns() && !opponentWins; reply++) {
+            opponentWins = position.canPlay(reply) && position.isWinningMove(reply);
+        }
+        position.undo(column);
+        return opponentWins;
+    }
+
+    @Override
+    public int chooseColumn(Position position) {
+        long start = System.nanoTime();
+        int column = search(position);
+        if (hasSearchListeners()) {
+            SearchStats stats = new SearchStats();
+            stats.position = new Position(position);
+            stats.column = column;
+            stats.score = lastScore;
+            stats.nodes = nodeCount;
+            stats.tableProbes = tableProbes;
+            stats.tableHits = tableHits;
+            stats.cutoffs = cutoffs;
+            stats.completedDepth = completedDepth;
+            stats.maxDepth = maxPly;
+            stats.elapsedNanos = System.nanoTime() - start;
+            stats.principalVariation = SearchStats.principalVariation(table, position, column, Math.max(1, completedDepth));
+            fireSearchFinished(stats);
+        }
+        return column;
+    }
+
+    private int search(Position position) {
+        Position searchPosition = new Position(position);
+        nodeCount = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        cutoffs = 0;
+        maxPly = 0;
+        completedDepth = 0;
+        lastScore = 0;
+        aborted = false;
+        centerOrder = position.getGeometry().centerOrder();
+        resetHeuristics();
+        evaluator.reset(searchPosition);
+        if (!sharedTable) table.newSearch(); // Entries stay valid between moves, they are only aged
+
+        deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+        nodeLimit = nodeBudget > 0 ? nodeBudget : Long.MAX_VALUE;
+        int emptyCells = position.getGeometry().getCells() - position.getMoves();
+        int lastDepth = timeBudgetMillis > 0 || nodeBudget > 0 ? emptyCells : Math.min(maxDepth, emptyCells);
+
+        int count = orderMoves(searchPosition, 0, GameConfig.INVALID);
+        if (count == 0) return GameConfig.INVALID;
+        int[] rootMoves = moveOrder[0].clone();
+        int[] rootScores = new int[count];
+        int[] finishedScores = null; // Root scores of the deepest finished iteration, in rootMoves order
+
+        // Helpers start on a different root move and odd ones skip depth 1, so threads spread over the tree
+        for (int i = 0; i < helperIndex % count; i++) {
+            int first = rootMoves[0];
+            System.arraycopy(rootMoves, 1, rootMoves, 0, count - 1);
+            rootMoves[count - 1] = first;
+        }
+
+        // Iterative deepening: only a finished iteration may change the answer
+        ArrayList<Integer> bestColumns = new ArrayList<>();
+        for (searchDepth = 1 + helperIndex % 2; searchDepth <= lastDepth; searchDepth++) {
+            int best = searchRoot(searchPosition, rootMoves, rootScores, count);
+            if (aborted) break;
+
+            bestColumns.clear();
+            for (int i = 0; i < count; i++) {
+                if (rootScores[i] == best) {
+                    bestColumns.add(rootMoves[i]);
+                }
+            }
+            completedDepth = searchDepth;
+            lastScore = best;
+            sortRootMoves(rootMoves, rootScores, count);
+            finishedScores = rootScores.clone();
+
+            // A forced win or loss will not change with more depth
+            if (Math.abs(best) > DECIDED_SCORE) break;
+        }
+
+        // Out of time before depth 1 finished: fall back to the best ordered move
+        if (bestColumns.isEmpty()) return rootMoves[0];
+
+        if (evaluationNoise > 0) return noisyChoice(searchPosition, rootMoves, finishedScores, count);
+
+        // Randomly choose among the columns with the best score, like ThoughtfulAI
+        return bestColumns.get(random.nextInt(bestColumns.size()));
+    }
+}
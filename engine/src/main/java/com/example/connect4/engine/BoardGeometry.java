@@ -0,0 +1,245 @@
+package com.example.connect4.engine;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Board size and the number of stones in a row that wins, chosen at runtime: 7x6 connect 4, 8x7, 9x7,
+// connect 5... Immutable and interned by of(), so positions on the same board share one instance and
+// geometries compare with ==.
+// The bitboard layout is picked here once: bit (column * stride + height) is a cell. When the board plus
+// an empty bit on top of every column fits in 64 bits the stride is rows + 1, so shifted alignments never
+// wrap around; larger boards such as 9x7 drop that bit and mask out the wrapping cells instead.
+// The standard board keeps the two-shift test for four in a row, other rules walk the line stone by stone.
+// winsThrough looks at the four lines through one cell only, for checking the move just played.
+public final class BoardGeometry {
+    public static final int MAX_COLUMNS = 14; // Moves are stored in 4 bits by TranspositionTable
+    public static final int MAX_CELLS = Long.SIZE;
+
+    private static final ConcurrentHashMap<Integer, BoardGeometry> INTERNED = new ConcurrentHashMap<>();
+
+    // Line directions as (column, height) steps: vertical, horizontal, diagonal (/), diagonal (\)
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    // Declared after the fields of() uses during class initialization
+    public static final BoardGeometry STANDARD = of(GameConfig.COLUMNS, GameConfig.ROWS, GameConfig.WIN_LENGTH);
+
+    private final int columns;
+    private final int rows;
+    private final int winLength;
+    private final int stride;
+    private final boolean padded; // An empty bit on top of every column
+    private final boolean fourInARow; // Padded with a win length of 4, the two-shift test applies
+    private final long bottomMask;
+    private final long boardMask;
+    private final int[] shifts = new int[DIRECTIONS.length]; // Bit distance to the next cell of a line
+    private final long[] linked = new long[DIRECTIONS.length]; // Cells whose next cell of the line is on the board
+    private final long[][] lines; // Per direction and bit: cells of the line within winLength - 1 of that cell
+    private final int[] centerOrder;
+
+    // Zobrist keys per player and bit, fixed seed so hashes are stable between runs
+    final long[][] zobrist;
+    final long zobristAiToMove;
+
+    private BoardGeometry(int columns, int rows, int winLength) {
+        this.columns = columns;
+        this.rows = rows;
+        this.winLength = winLength;
+        padded = columns * (rows + 1) <= MAX_CELLS;
+        stride = padded ? rows + 1 : rows;
+        fourInARow = padded && winLength == 4;
+
+        long bottom = 0;
+        for (int column = 0; column < columns; column++) bottom |= 1L << (column * stride);
+        bottomMask = bottom;
+        boardMask = bottom * ((1L << rows) - 1);
+
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int[] direction = DIRECTIONS[d];
+            shifts[d] = direction[0] * stride + direction[1];
+            for (int column = 0; column < columns; column++) {
+                for (int height = 0; height < rows; height++) {
+                    if (onBoard(column + direction[0], height + direction[1])) linked[d] |= bit(column, height);
+                }
+            }
+        }
+
+        lines = new long[DIRECTIONS.length][columns * stride];
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int[] direction = DIRECTIONS[d];
+            for (int column = 0; column < columns; column++) {
+                for (int height = 0; height < rows; height++) {
+                    long line = 0;
+                    for (int i = 1 - winLength; i < winLength; i++) {
+                        int lineColumn = column + direction[0] * i;
+                        int lineHeight = height + direction[1] * i;
+                        if (onBoard(lineColumn, lineHeight)) line |= bit(lineColumn, lineHeight);
+                    }
+                    lines[d][index(column, height)] = line;
+                }
+            }
+        }
+
+        // Center column first, then alternate outwards: 3, 2, 4, 1, 5, 0, 6 on the standard board
+        centerOrder = new int[columns];
+        for (int i = 0; i < columns; i++) {
+            centerOrder[i] = columns / 2 + (1 - 2 * (i % 2)) * (i + 1) / 2;
+        }
+
+        // The standard board keeps its keys; other boards get their own, so tables shared between boards never
+        // mistake positions of one for the other
+        long seed = 0x5EED_C4L;
+        if (columns != GameConfig.COLUMNS || rows != GameConfig.ROWS || winLength != GameConfig.WIN_LENGTH) {
+            seed ^= key(columns, rows, winLength) * 0x9E3779B97F4A7C15L;
+        }
+        Random random = new Random(seed);
+        zobrist = new long[2][columns * stride];
+        for (long[] keys : zobrist) {
+            for (int i = 0; i < keys.length; i++) keys[i] = random.nextLong();
+        }
+        zobristAiToMove = random.nextLong();
+    }
+
+    // Geometry of a board; throws IllegalArgumentException if it does not fit the 64-bit bitboard
+    public static BoardGeometry of(int columns, int rows, int winLength) {
+        if (columns < 2 || columns > MAX_COLUMNS) {
+            throw new IllegalArgumentException("Columns must be between 2 and " + MAX_COLUMNS);
+        }
+        if (rows < 2 || columns * rows > MAX_CELLS) {
+            throw new IllegalArgumentException("A board of " + columns + "x" + rows + " does not fit in "
+                    + MAX_CELLS + " cells");
+        }
+        if (winLength < 2 || winLength > Math.max(columns, rows)) {
+            throw new IllegalArgumentException("Cannot connect " + winLength + " on a " + columns + "x" + rows + " board");
+        }
+        return INTERNED.computeIfAbsent(key(columns, rows, winLength), key -> new BoardGeometry(columns, rows, winLength));
+    }
+
+    private static int key(int columns, int rows, int winLength) {
+        return (columns << 16) | (rows << 8) | winLength;
+    }
+
+    // Parse "COLUMNSxROWS" or "COLUMNSxROWSxWIN", e.g. "9x7" or "9x7x5"; the win length defaults to 4
+    public static BoardGeometry parse(String spec) {
+        String[] parts = spec.toLowerCase(Locale.ROOT).split("x");
+        if (parts.length < 2 || parts.length > 3) throw new IllegalArgumentException("Unknown board: " + spec);
+        try {
+            int winLength = parts.length > 2 ? Integer.parseInt(parts[2]) : GameConfig.WIN_LENGTH;
+            return of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), winLength);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown board: " + spec);
+        }
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+    public int getCells() {
+        return columns * rows;
+    }
+
+    public boolean isStandard() {
+        return this == STANDARD;
+    }
+
+    // Bits between the bottoms of two neighbouring columns
+    public int getStride() {
+        return stride;
+    }
+
+    // True if every column has an empty bit on top, see the class comment
+    public boolean isPadded() {
+        return padded;
+    }
+
+    public long getBottomMask() {
+        return bottomMask;
+    }
+
+    public long getBoardMask() {
+        return boardMask;
+    }
+
+    public boolean onBoard(int column, int height) {
+        return column >= 0 && column < columns && height >= 0 && height < rows;
+    }
+
+    public int index(int column, int height) {
+        return column * stride + height;
+    }
+
+    public long bit(int column, int height) {
+        return 1L << (column * stride + height);
+    }
+
+    // Columns from the center outwards; shared, do not modify
+    int[] centerOrder() {
+        return centerOrder;
+    }
+
+    // True if the mask contains winLength aligned stones in any direction
+    public boolean alignment(long mask) {
+        if (fourInARow) {
+            // Horizontal
+            long m = mask & (mask >>> stride);
+            if ((m & (m >>> (2 * stride))) != 0) return true;
+
+            // Diagonal (/)
+            m = mask & (mask >>> (stride + 1));
+            if ((m & (m >>> (2 * (stride + 1)))) != 0) return true;
+
+            // Diagonal (\)
+            m = mask & (mask >>> (stride - 1));
+            if ((m & (m >>> (2 * (stride - 1)))) != 0) return true;
+
+            // Vertical
+            m = mask & (mask >>> 1);
+            return (m & (m >>> 2)) != 0;
+        }
+
+        // Cells starting a run of k stones, grown one stone per step along each direction
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            long starts = mask & linked[d];
+            long run = mask;
+            for (int k = 1; k < winLength && run != 0; k++) run = starts & (run >>> shifts[d]);
+            if (run != 0) return true;
+        }
+        return false;
+    }
+
+    // True if the stones plus the cell (column, height) hold winLength aligned stones through that cell.
+    // Only the four lines through the cell are looked at; a run of winLength inside a segment reaching
+    // winLength - 1 cells either side always covers the cell. Nothing is modified or allocated.
+    public boolean winsThrough(long stones, int column, int height) {
+        int index = column * stride + height;
+        long stonesAndCell = stones | (1L << index);
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            long line = stonesAndCell & lines[d][index];
+            int shift = shifts[d];
+            if (winLength == 4) {
+                long m = line & (line >>> shift);
+                if ((m & (m >>> (2 * shift))) != 0) return true;
+            }
+            else {
+                long run = line;
+                for (int k = 1; k < winLength && run != 0; k++) run &= line >>> (k * shift);
+                if (run != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return columns + "x" + rows + (winLength == GameConfig.WIN_LENGTH ? "" : "x" + winLength);
+    }
+}
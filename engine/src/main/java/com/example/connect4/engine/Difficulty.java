@@ -0,0 +1,79 @@
+package com.example.connect4.engine;
+
+import java.util.Locale;
+
+// Difficulty levels offered to players, weakest first. Every level is an AlphaBetaAI that searches as
+// deep as a node budget allows and adds noise to its root scores, so the cost of a move has an upper
+// bound whatever the position and does not depend on the machine. A node takes well under a
+// microsecond on one core, so Expert stays under a second a move. The transposition table is sized to the
+// budget, weak levels do not hold 16 MB each. Levels without noise search into the process-wide
+// PositionCache when it is on, each in a table of its own, so Hard never plays on results Expert searched
+// deeper; weaker ones keep their own table, so cached results never make them stronger.
+// PerfectAI is not a level: no opening book ships with the engine, so it would play the opening with
+// its fallback search, no better than Expert and bounded by time instead of nodes. GameRecord still
+// knows the name "Perfect" for archived games; AI.forDifficulty plays those at Hard.
+public enum Difficulty {
+    // Name, node budget per move, evaluation noise
+    BEGINNER("Beginner", 200, 40),
+    EASY("Easy", 2_000, 16),
+    MEDIUM("Medium", 20_000, 6),
+    HARD("Hard", 200_000, 0),
+    EXPERT("Expert", 2_000_000, 0);
+
+    private static final int MAX_TABLE_MEGABYTES = 16;
+    private static final int TABLE_BYTES_PER_NODE = 32; // A bucket per node, entries live on between moves
+
+    private final String displayName;
+    private final long nodeBudget;
+    private final int evaluationNoise;
+
+    Difficulty(String displayName, long nodeBudget, int evaluationNoise) {
+        this.displayName = displayName;
+        this.nodeBudget = nodeBudget;
+        this.evaluationNoise = evaluationNoise;
+    }
+
+    // Level of a name in any case, e.g. "Hard" or "HARD"; null if there is none
+    public static Difficulty named(String name) {
+        for (Difficulty difficulty : values()) {
+            if (difficulty.displayName.equalsIgnoreCase(name)) return difficulty;
+        }
+        return null;
+    }
+
+    // Names to show players, weakest first
+    public static String[] displayNames() {
+        Difficulty[] levels = values();
+        String[] names = new String[levels.length];
+        for (int i = 0; i < levels.length; i++) names[i] = levels[i].displayName;
+        return names;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    // Most nodes searched per move
+    public long getNodeBudget() {
+        return nodeBudget;
+    }
+
+    public int getEvaluationNoise() {
+        return evaluationNoise;
+    }
+
+    // Table of the PositionCache searched by the level, e.g. "alphabeta-hard"
+    public String getCacheKind() {
+        return AlphaBetaAI.CACHE_KIND + "-" + name().toLowerCase(Locale.ROOT);
+    }
+
+    public AI createAI() {
+        PositionCache cache = evaluationNoise == 0 ? PositionCache.shared() : null;
+        long tableMegabytes = Math.min(MAX_TABLE_MEGABYTES, Math.max(1, nodeBudget * TABLE_BYTES_PER_NODE >> 20));
+        AlphaBetaAI ai = cache != null ? new AlphaBetaAI(AlphaBetaAI.DEFAULT_DEPTH, cache, getCacheKind())
+                : new AlphaBetaAI(AlphaBetaAI.DEFAULT_DEPTH, (int) tableMegabytes);
+        ai.setNodeBudget(nodeBudget);
+        ai.setEvaluationNoise(evaluationNoise);
+        return ai;
+    }
+}
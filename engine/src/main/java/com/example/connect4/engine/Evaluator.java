@@ -0,0 +1,137 @@
+package com.example.connect4.engine;
+
+// Heuristic position scoring shared by the search engines
+public class Evaluator {
+    public static final int WINNING_SCORE = 1000; // Winning state score
+    public static final int THREE_IN_A_ROW_SCORE = 7; // Score for three in a row
+    public static final int TWO_IN_A_ROW_SCORE = 4; // Score for two in a row
+
+    private final int[] line = new int[BoardGeometry.MAX_CELLS]; // Reused buffer for one line of cells
+
+    // Score of the position for the side to move
+    public int evaluate(Position position) {
+        // Losing state: the opponent just completed a line
+        if (position.lastMoverWon()) return -WINNING_SCORE;
+
+        return heuristic(position);
+    }
+
+    // Same as evaluate for a position whose last move is known not to have won; skips the win check
+    public int heuristic(Position position) {
+        // Draw state: 0
+        if (position.isFull()) return 0;
+
+        int player = position.getToMove();
+        return evaluatePotentialScores(position, player) - evaluatePotentialScores(position, Position.opponent(player));
+    }
+
+    private int evaluatePotentialScores(Position position, int player) {
+        BoardGeometry geometry = position.getGeometry();
+        int rows = geometry.getRows();
+        int columns = geometry.getColumns();
+        int winLength = geometry.getWinLength();
+        int score = 0;
+
+        // Count horizontal
+        for (int row = 0; row < rows; row++) {
+            int length = 0;
+            for (int col = 0; col < columns; col++) {
+                line[length++] = position.getCell(row, col);
+            }
+            score += evaluateLineForPotential(line, length, player, winLength);
+        }
+
+        // Count vertical
+        for (int col = 0; col < columns; col++) {
+            int length = 0;
+            for (int row = 0; row < rows; row++) {
+                line[length++] = position.getCell(row, col);
+            }
+            score += evaluateLineForPotential(line, length, player, winLength);
+        }
+
+        // Count diagonal (/)
+        for (int col = -rows; col < columns; col++) {
+            int length = 0;
+            for (int i = 0; i < columns - col; i++) {
+                if (i < rows && col + i >= 0) {
+                    line[length++] = position.getCell(i, col + i);
+                }
+            }
+            score += evaluateLineForPotential(line, length, player, winLength);
+        }
+
+        // Count diagonal (\)
+        for (int col = 0; col < columns + rows - 1; col++) {
+            int length = 0;
+            for (int i = 0; i <= col; i++) {
+                if (i < rows && col - i < columns) {
+                    line[length++] = position.getCell(i, col - i);
+                }
+            }
+            score += evaluateLineForPotential(line, length, player, winLength);
+        }
+
+        return score;
+    }
+
+    private static int evaluateLineForPotential(int[] line, int length, int player, int winLength) {
+        int score = 0;
+        int consecutive = 0;
+        int openEnds = 0;
+
+        for (int i = 0; i < length; i++) {
+            if (line[i] == player) {
+                consecutive++;
+            }
+            else if (line[i] == GameConfig.EMPTY) {
+                if (consecutive > 0) {
+                    openEnds++;
+                    score += getPotentialScore(consecutive, openEnds, winLength);
+                    consecutive = 0;
+                    openEnds = 1; // Current empty cell could be the start of a new sequence
+                } else {
+                    openEnds = 1; // An empty cell with no current consecutive player pieces
+                }
+            }
+            else if (consecutive > 0) {
+                openEnds++;
+                score += getPotentialScore(consecutive, openEnds, winLength);
+                consecutive = 0;
+                openEnds = 0;
+            }
+            else {
+                openEnds = 0; // Reset if consecutive run is blocked by opponent's piece
+            }
+        }
+
+        // Check at the end of the line
+        if (consecutive > 0) {
+            openEnds++;
+            score += getPotentialScore(consecutive, openEnds, winLength);
+        }
+
+        return score;
+    }
+
+    // Three and two in a row stand for one and two stones short of the win length
+    private static int getPotentialScore(int consecutive, int openEnds, int winLength) {
+        if (consecutive == winLength - 1) {
+            if (openEnds == 2) {
+                return THREE_IN_A_ROW_SCORE; // More valuable three since it has two open ends
+            }
+            else if (openEnds == 1) {
+                return THREE_IN_A_ROW_SCORE / 2; // Less valuable since it can only be completed one way
+            }
+        }
+        else if (consecutive == winLength - 2) {
+            if (openEnds == 2) {
+                return TWO_IN_A_ROW_SCORE; // More valuable two since it has two open ends
+            }
+            else if (openEnds == 1) {
+                return TWO_IN_A_ROW_SCORE / 2; // Less valuable since it can only be completed one way
+            }
+        }
+        return 0;
+    }
+}
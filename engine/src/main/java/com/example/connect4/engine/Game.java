@@ -0,0 +1,193 @@
+package com.example.connect4.engine;
+
+import java.util.AbstractList;
+import java.util.List;
+
+// One game of Connect Four without any UI: whose turn it is, the result, and AI moves.
+// Played on the standard board unless a BoardGeometry with another size or win length is given.
+// The MoveHistory holds the only copy of the position: undo and redo are one move on it, and jumpTo
+// starts from its nearest checkpoint. The move log keeps a Move per ply, so a redone move is not
+// created again. Not thread-safe; a server hands each game to one thread at a time.
+public class Game {
+    public enum Status { IN_PROGRESS, PLAYER_WON, AI_WON, DRAW }
+
+    private final MoveHistory history;
+    private final GameData.Move[] moves; // Move played at each ply, undone ones included up to history.size()
+    private final List<GameData.Move> moveLog;
+    private int firstToMove;
+    private Status status;
+
+    public Game() {
+        this(GameConfig.PLAYER);
+    }
+
+    public Game(int firstToMove) {
+        this(BoardGeometry.STANDARD, firstToMove);
+    }
+
+    // Game on another board size or win length
+    public Game(BoardGeometry geometry, int firstToMove) {
+        history = new MoveHistory(geometry, firstToMove);
+        moves = new GameData.Move[geometry.getCells()];
+        moveLog = new AbstractList<GameData.Move>() {
+            @Override
+            public GameData.Move get(int index) {
+                if (index < 0 || index >= history.getPly()) throw new IndexOutOfBoundsException("No move " + index);
+                return moves[index];
+            }
+
+            @Override
+            public int size() {
+                return history.getPly();
+            }
+        };
+        newGame(firstToMove);
+    }
+
+    // Clear the board, firstToMove is GameConfig.PLAYER or GameConfig.AI
+    public void newGame(int firstToMove) {
+        if (firstToMove != GameConfig.PLAYER && firstToMove != GameConfig.AI) {
+            throw new IllegalArgumentException("First to move must be PLAYER or AI");
+        }
+        this.firstToMove = firstToMove;
+        history.clear(firstToMove);
+        status = Status.IN_PROGRESS;
+    }
+
+    // Restart with the same side moving first
+    public void newGame() {
+        newGame(firstToMove);
+    }
+
+    public boolean canPlay(int column) {
+        return status == Status.IN_PROGRESS && column >= 0 && column < getGeometry().getColumns()
+                && history.getPosition().canPlay(column);
+    }
+
+    // Drop a chip for the side to move; returns its row, or INVALID if the move is not allowed
+    public int play(int column) {
+        if (!canPlay(column)) return GameConfig.INVALID;
+
+        int player = getToMove();
+        history.play(column);
+        int row = topRow(column);
+        moves[history.getPly() - 1] = new GameData.Move(player == GameConfig.PLAYER ? "PLAYER" : "AI", column, row);
+        status = statusAfterLastMove();
+        return row;
+    }
+
+    // Row, counted from the top, of the highest chip in the column
+    private int topRow(int column) {
+        Position position = history.getPosition();
+        return position.getGeometry().getRows() - position.getHeight(column);
+    }
+
+    // Result of the game at the cursor; a win can only come from the last move played
+    private Status statusAfterLastMove() {
+        Position position = history.getPosition();
+        int ply = history.getPly();
+        if (ply > 0 && position.isWinAt(history.getColumn(ply - 1))) {
+            return position.getToMove() == GameConfig.AI ? Status.PLAYER_WON : Status.AI_WON;
+        }
+        return position.isFull() ? Status.DRAW : Status.IN_PROGRESS;
+    }
+
+    public boolean canUndo() {
+        return history.canUndo();
+    }
+
+    public boolean canRedo() {
+        return history.canRedo();
+    }
+
+    // Take back the last move in O(1); it can be replayed with redo until another move is played.
+    // Returns the column taken back, or INVALID at the start of the game
+    public int undo() {
+        int column = history.undo();
+        if (column == GameConfig.INVALID) return GameConfig.INVALID;
+        status = Status.IN_PROGRESS; // Nothing is played after the end, so the game was still going
+        return column;
+    }
+
+    // Replay the next undone move in O(1); returns its column, or INVALID if there is none
+    public int redo() {
+        int column = history.redo();
+        if (column == GameConfig.INVALID) return GameConfig.INVALID;
+        status = statusAfterLastMove();
+        return column;
+    }
+
+    // Go to any ply, 0 being the empty board and getHistorySize() the last move played. Restores the
+    // nearest checkpoint and replays at most MoveHistory.CHECKPOINT_INTERVAL - 1 moves, or steps from the
+    // current ply when that is shorter.
+    public void jumpTo(int ply) {
+        history.jumpTo(ply);
+        status = statusAfterLastMove();
+    }
+
+    // Number of moves on the board
+    public int getPly() {
+        return history.getPly();
+    }
+
+    // Number of moves that can be reached with redo or jumpTo
+    public int getHistorySize() {
+        return history.size();
+    }
+
+    // Column the AI would play for the side to move; the game is left untouched
+    public int chooseAiMove(AI ai) {
+        if (status != Status.IN_PROGRESS) return GameConfig.INVALID;
+        return ai.chooseColumn(getPosition());
+    }
+
+    // Let the AI move for the side to move; returns the column played, or INVALID if none was
+    public int playAiMove(AI ai) {
+        int column = chooseAiMove(ai);
+        if (column == GameConfig.INVALID || play(column) == GameConfig.INVALID) return GameConfig.INVALID;
+        return column;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isOver() {
+        return status != Status.IN_PROGRESS;
+    }
+
+    public BoardGeometry getGeometry() {
+        return history.getPosition().getGeometry();
+    }
+
+    public int getToMove() {
+        return history.getPosition().getToMove();
+    }
+
+    public int getFirstToMove() {
+        return firstToMove;
+    }
+
+    // Row a chip dropped in the column would land on, or INVALID if the column is full
+    public int findEmptyRow(int column) {
+        return history.getPosition().getEmptyRow(column);
+    }
+
+    // Copy of the current position, safe to hand to a search on another thread
+    public Position getPosition() {
+        return new Position(history.getPosition());
+    }
+
+    // Read-only view of the moves on the board, not a copy
+    public List<GameData.Move> getMoveLog() {
+        return moveLog;
+    }
+
+    // Copy of the game as GameData, with its board and move log; later moves do not change it
+    public GameData getGameData() {
+        GameData gameData = new GameData(getGeometry());
+        gameData.restartGame(firstToMove);
+        for (GameData.Move move : moveLog) gameData.applyMove(move.player, move.column, move.row);
+        return gameData;
+    }
+}
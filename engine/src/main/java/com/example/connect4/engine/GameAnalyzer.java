@@ -0,0 +1,285 @@
+package com.example.connect4.engine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Reviews archives of played games: every ply of every game is searched by AlphaBetaAI and annotated
+// with the score of the move played, the best move and its score, and a blunder flag.
+// Three stages joined by bounded queues: one thread parses the inputs, analysis threads replay each game
+// through Game and search every position, one thread writes the results. A slow stage blocks the ones
+// before it, so memory stays bounded whatever the size of the input.
+// Inputs are text save files, binary game archives (GameRecordWriter) or directories holding them, on any board.
+// Output is tab-separated, one line per move, games in the order they finish.
+// Usage: GameAnalyzer <output file> <inputs...> [-threads n] [-depth d] [-blunder margin]
+public class GameAnalyzer {
+    public static final int DEFAULT_DEPTH = 7;
+    public static final int DEFAULT_BLUNDER_MARGIN = 100; // Score lost by a move for it to count as a blunder
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final long PROGRESS_INTERVAL = 10000;
+
+    // A game waiting for analysis; source names it in the output
+    private static class Job {
+        final String source;
+        final GameRecord record;
+
+        Job(String source, GameRecord record) {
+            this.source = source;
+            this.record = record;
+        }
+    }
+
+    // Per-ply annotations of one game, scores are for the player who moved
+    private static class Analysis {
+        final Job job;
+        final int[] scores;
+        final int[] bestColumns;
+        final int[] bestScores;
+
+        Analysis(Job job) {
+            this.job = job;
+            int moves = job.record.getMoveCount();
+            scores = new int[moves];
+            bestColumns = new int[moves];
+            bestScores = new int[moves];
+        }
+    }
+
+    private static final Job END_OF_JOBS = new Job(null, null);
+    private static final Analysis END_OF_RESULTS = new Analysis(new Job(null, new GameRecord(GameConfig.PLAYER, null, new byte[0])));
+
+    private final int threads;
+    private final int depth;
+    private final int blunderMargin;
+
+    public GameAnalyzer(int threads, int depth, int blunderMargin) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+        this.threads = threads;
+        this.depth = depth;
+        this.blunderMargin = blunderMargin;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int depth = DEFAULT_DEPTH;
+        int blunderMargin = DEFAULT_BLUNDER_MARGIN;
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-threads": threads = Integer.parseInt(args[++i]); break;
+                case "-depth": depth = Integer.parseInt(args[++i]); break;
+                case "-blunder": blunderMargin = Integer.parseInt(args[++i]); break;
+                default: paths.add(Paths.get(args[i]));
+            }
+        }
+        if (paths.size() < 2) {
+            System.err.println("Usage: GameAnalyzer <output file> <inputs...> [-threads n] [-depth d] [-blunder margin]");
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        long games = new GameAnalyzer(threads, depth, blunderMargin).run(paths.subList(1, paths.size()), paths.get(0));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Analyzed %d games in %.1f s (%.0f games/s)%n", games, seconds, games / seconds);
+    }
+
+    // Analyze every game of the inputs into the output file; returns the number of games analyzed
+    public long run(List<Path> inputs, Path output) throws IOException, InterruptedException {
+        BlockingQueue<Job> jobs = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<Analysis> results = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        long[] written = new long[1];
+        IOException[] failure = new IOException[1];
+
+        Thread parser = new Thread(() -> {
+            try {
+                for (Path input : inputs) parse(input, jobs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // One end marker per analysis thread; put blocks until there is room
+                for (int t = 0; t < threads; t++) putUninterruptibly(jobs, END_OF_JOBS);
+            }
+        }, "analyzer-parser");
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                AlphaBetaAI ai = new AlphaBetaAI(depth);
+                Game game = new Game();
+                try {
+                    Job job;
+                    while ((job = jobs.take()) != END_OF_JOBS) {
+                        BoardGeometry geometry = job.record.getGeometry();
+                        if (game.getGeometry() != geometry) game = new Game(geometry, GameConfig.PLAYER);
+                        results.put(analyze(job, ai, game));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "analyzer-" + t);
+        }
+
+        // A failed write stops the output but the writer keeps draining, so the analysis threads never block
+        BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+        Thread writer = new Thread(() -> {
+            Analysis analysis;
+            try {
+                out.write("source\tply\tplayer\tcolumn\tscore\tbest column\tbest score\tblunder\n");
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+            while ((analysis = takeUninterruptibly(results)) != END_OF_RESULTS) {
+                if (failure[0] != null) continue;
+                try {
+                    write(analysis, out);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+                if (++written[0] % PROGRESS_INTERVAL == 0) System.err.println("Analyzed " + written[0] + " games");
+            }
+        }, "analyzer-writer");
+
+        parser.start();
+        for (Thread worker : workers) worker.start();
+        writer.start();
+
+        parser.join();
+        for (Thread worker : workers) worker.join();
+        putUninterruptibly(results, END_OF_RESULTS);
+        writer.join();
+        try {
+            out.close();
+        } catch (IOException e) {
+            if (failure[0] == null) failure[0] = e;
+        }
+        if (failure[0] != null) throw failure[0];
+        return written[0];
+    }
+
+    // Queue every game of a file or directory; unreadable text files are reported and skipped
+    private void parse(Path input, BlockingQueue<Job> jobs) throws InterruptedException {
+        if (Files.isDirectory(input)) {
+            List<Path> children;
+            try (Stream<Path> listing = Files.list(input)) {
+                children = listing.sorted().collect(Collectors.toList());
+            } catch (IOException e) {
+                System.err.println("Skipping " + input + ": " + e.getMessage());
+                return;
+            }
+            for (Path child : children) parse(child, jobs);
+            return;
+        }
+
+        try {
+            if (GameRecordReader.isArchive(input)) {
+                try (GameRecordReader reader = new GameRecordReader(input)) {
+                    GameRecord record;
+                    for (long index = 0; (record = reader.read()) != null; index++) {
+                        jobs.put(new Job(input + "#" + index, record));
+                    }
+                }
+            }
+            else {
+                try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+                    jobs.put(new Job(input.toString(), GameRecord.readText(reader)));
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Skipping " + input + ": " + e.getMessage());
+        }
+    }
+
+    // Replay the game through Game and search the position before every move.
+    // The score of the move played is the negated best score of the position it leads to.
+    private Analysis analyze(Job job, AlphaBetaAI ai, Game game) {
+        GameRecord record = job.record;
+        Analysis analysis = new Analysis(job);
+        ai.newGame(); // Same results whatever the thread analyzed before
+        ai.setSeed(job.source.hashCode());
+        game.newGame(record.getFirstToMove());
+
+        int moves = record.getMoveCount();
+        for (int ply = 0; ply < moves; ply++) {
+            analysis.bestColumns[ply] = ai.chooseColumn(game.getPosition());
+            analysis.bestScores[ply] = ai.getLastScore();
+            if (ply > 0) analysis.scores[ply - 1] = -analysis.bestScores[ply];
+            game.play(record.getColumn(ply));
+        }
+
+        // The last move ends the game or leaves a position nobody searched yet
+        if (moves > 0) {
+            if (game.getStatus() == Game.Status.PLAYER_WON || game.getStatus() == Game.Status.AI_WON) {
+                analysis.scores[moves - 1] = Evaluator.WINNING_SCORE;
+            }
+            else if (game.getStatus() == Game.Status.DRAW) {
+                analysis.scores[moves - 1] = 0;
+            }
+            else {
+                ai.chooseColumn(game.getPosition());
+                analysis.scores[moves - 1] = -ai.getLastScore();
+            }
+        }
+        return analysis;
+    }
+
+    private void write(Analysis analysis, BufferedWriter out) throws IOException {
+        GameRecord record = analysis.job.record;
+        int player = record.getFirstToMove();
+        StringBuilder line = new StringBuilder();
+        for (int ply = 0; ply < record.getMoveCount(); ply++) {
+            boolean blunder = analysis.bestScores[ply] - analysis.scores[ply] >= blunderMargin;
+
+            line.setLength(0);
+            line.append(analysis.job.source).append('\t')
+                    .append(ply + 1).append('\t')
+                    .append(player == GameConfig.PLAYER ? "PLAYER" : "AI").append('\t')
+                    .append(record.getColumn(ply)).append('\t')
+                    .append(analysis.scores[ply]).append('\t')
+                    .append(analysis.bestColumns[ply]).append('\t')
+                    .append(analysis.bestScores[ply]).append('\t')
+                    .append(blunder ? "BLUNDER" : "").append('\n');
+            out.write(line.toString());
+            player = Position.opponent(player);
+        }
+    }
+
+    private static <T> T takeUninterruptibly(BlockingQueue<T> queue) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return queue.take();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    // End markers must arrive even if the thread was interrupted, or the next stage waits forever
+    private static <T> void putUninterruptibly(BlockingQueue<T> queue, T item) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+}
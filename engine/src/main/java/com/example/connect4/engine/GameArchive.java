@@ -0,0 +1,75 @@
+package com.example.connect4.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Converts between text save files and a binary game archive.
+// Usage: GameArchive import <archive> <text files...>   appends the games, all on one board, to the archive
+//        GameArchive export <archive> <directory>        writes game-<n>.txt for every game
+//        GameArchive count <archive>
+public class GameArchive {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) usage();
+        Path archive = Paths.get(args[1]);
+        switch (args[0]) {
+            case "import":
+                if (args.length < 3) usage();
+                // The archive is on the board of the first game; games on another board are rejected
+                GameRecordWriter archiveWriter = null;
+                try {
+                    for (int i = 2; i < args.length; i++) {
+                        GameRecord record;
+                        try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[i]), StandardCharsets.UTF_8)) {
+                            record = GameRecord.readText(reader);
+                        }
+                        if (archiveWriter == null) archiveWriter = new GameRecordWriter(archive, record.getGeometry());
+                        if (record.getGeometry() != archiveWriter.getGeometry()) {
+                            throw new IOException(args[i] + " is a " + record.getGeometry() + " game, the archive is "
+                                    + archiveWriter.getGeometry());
+                        }
+                        archiveWriter.append(record);
+                    }
+                    System.err.println("Appended " + archiveWriter.getRecordCount() + " games to " + archive);
+                } finally {
+                    if (archiveWriter != null) archiveWriter.close();
+                }
+                break;
+            case "export":
+                if (args.length != 3) usage();
+                Path directory = Files.createDirectories(Paths.get(args[2]));
+                long exported = 0;
+                try (GameRecordReader reader = new GameRecordReader(archive)) {
+                    GameRecord record;
+                    while ((record = reader.read()) != null) {
+                        Path file = directory.resolve("game-" + exported++ + ".txt");
+                        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                            record.writeText(writer);
+                        }
+                    }
+                }
+                System.err.println("Exported " + exported + " games to " + directory);
+                break;
+            case "count":
+                long count = 0;
+                try (GameRecordReader reader = new GameRecordReader(archive)) {
+                    while (reader.read() != null) count++;
+                }
+                System.out.println(count);
+                break;
+            default:
+                usage();
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: GameArchive import <archive> <text files...>");
+        System.err.println("       GameArchive export <archive> <directory>");
+        System.err.println("       GameArchive count <archive>");
+        System.exit(1);
+    }
+}
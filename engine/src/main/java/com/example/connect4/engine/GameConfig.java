@@ -0,0 +1,11 @@
+package com.example.connect4.engine;
+
+public class GameConfig {
+    public static final int COLUMNS = 7;
+    public static final int ROWS = 6;
+    public static final int WIN_LENGTH = 4; // Standard board; other sizes and rules go through BoardGeometry
+    public static final int EMPTY = 0;
+    public static final int PLAYER = 1;
+    public static final int AI = 2;
+    public static final int INVALID = -1;
+}
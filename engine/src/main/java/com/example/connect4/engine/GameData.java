@@ -0,0 +1,122 @@
+package com.example.connect4.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Collections;
+
+public class GameData {
+    public static class Move {
+        public final String player;  // "PLAYER" or "AI"
+        public final int column;     // Column index where the chip was dropped
+        public final int row;        // Row index where the chip ended up
+
+        public Move(String player, int column, int row) {
+            this.player = player;
+            this.column = column;
+            this.row = row;
+        }
+
+        @Override
+        public String toString() {
+            return player + ": column " + column + ", row " + row;
+        }
+    }
+
+    private ArrayList<ArrayList<Integer>> board;
+    private final Position position;
+    private final List<Move> moveLog = new ArrayList<>();
+    private final List<Move> moveLogView = Collections.unmodifiableList(moveLog);
+
+    public GameData(int rows, int columns) {
+        this(BoardGeometry.of(columns, rows, GameConfig.WIN_LENGTH));
+    }
+
+    public GameData(BoardGeometry geometry) {
+        board = new ArrayList<>(geometry.getRows());
+        for (int i = 0; i < geometry.getRows(); i++) {
+            ArrayList<Integer> row = new ArrayList<>(Collections.nCopies(geometry.getColumns(), GameConfig.EMPTY));
+            board.add(row);
+        }
+        position = new Position(geometry, GameConfig.PLAYER);
+        restartGame();
+    }
+
+    public GameData(ArrayList<ArrayList<Integer>> board) {
+        this.board = board;
+        this.position = Position.fromBoard(board, GameConfig.AI); // Boards handed to an AI have the AI to move
+    }
+
+    public ArrayList<ArrayList<Integer>> getBoard() {
+        return board;
+    }
+
+    // Bitboard kept in sync with the board, used by the search
+    public Position getPosition() {
+        return position;
+    }
+
+    public int findEmptyRow(int column) {
+        return position.getEmptyRow(column);
+    }
+
+    public int placePiece(int column, int player) {
+        int row = findEmptyRow(column);
+        if (row != GameConfig.INVALID) {
+            board.get(row).set(column, player);
+            position.play(column, player);
+        }
+        return row;
+    }
+
+    // True if the chip at (row, column) is part of a winning line; only the four lines through it are checked
+    public boolean checkWin(int row, int column) {
+        int player = board.get(row).get(column);
+        if (player == GameConfig.EMPTY) return false;
+        return position.getGeometry().winsThrough(position.getStones(player), column, board.size() - 1 - row);
+    }
+
+    public boolean checkDraw() {
+        return position.isFull();
+    }
+
+    public void restartGame() {
+        restartGame(GameConfig.PLAYER);
+    }
+
+    public void restartGame(int firstToMove) {
+        for (ArrayList<Integer> row: board) {
+            Collections.fill(row, GameConfig.EMPTY);
+        }
+        position.clear(firstToMove);
+        moveLog.clear();
+    }
+
+    // Record a move
+    public void logMove(String player, int column, int row) {
+        moveLog.add(new Move(player, column, row));
+    }
+
+    // Read-only view of the move log, it follows later moves and undos without being copied
+    public List<Move> getMoveLog() {
+        return moveLogView;
+    }
+
+    // Take back the last logged move; returns it, or null if the log is empty
+    public Move undoMove() {
+        if (moveLog.isEmpty()) return null;
+        Move move = moveLog.remove(moveLog.size() - 1);
+        int row = board.size() - position.getHeight(move.column); // Top stone of the column
+        board.get(row).set(move.column, GameConfig.EMPTY);
+        position.undo(move.column);
+        return move;
+    }
+
+    // Apply the move to the game state
+    public void applyMove(String player, int column, int row) {
+        int playerInteger = 0;
+        if (player.equals("PLAYER")) playerInteger = GameConfig.PLAYER;
+        else if (player.equals("AI")) playerInteger = GameConfig.AI;
+        placePiece(column, playerInteger);
+        logMove(player, column, row);
+    }
+}
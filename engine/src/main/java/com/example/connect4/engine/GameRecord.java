@@ -0,0 +1,183 @@
+package com.example.connect4.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// One finished or unfinished game: who moved first, the difficulty played and the columns in order.
+// Records are checked on construction, so replaying one always succeeds.
+// Text import/export uses the save file format of the app:
+//   Player plays first
+//   Difficulty: Hard
+//   Log of moves:
+//   PLAYER: column 3, row 5
+// with a "Board: 9x7" or "Board: 9x7x5" line (BoardGeometry.parse) for games off the standard board.
+// GameRecordWriter and GameRecordReader store records in the compact binary archive format.
+public class GameRecord {
+    // Difficulties with a binary code; the index is the code, 0 is unknown. Codes are stored in archives,
+    // new levels go at the end
+    static final String[] DIFFICULTIES = { null, "Easy", "Hard", "Perfect", "Beginner", "Medium", "Expert" };
+
+    private final BoardGeometry geometry;
+    private final int firstToMove;
+    private final String difficulty;
+    private final byte[] columns;
+
+    public GameRecord(int firstToMove, String difficulty, byte[] columns) {
+        this(BoardGeometry.STANDARD, firstToMove, difficulty, columns);
+    }
+
+    public GameRecord(BoardGeometry geometry, int firstToMove, String difficulty, byte[] columns) {
+        if (firstToMove != GameConfig.PLAYER && firstToMove != GameConfig.AI) {
+            throw new IllegalArgumentException("First to move must be PLAYER or AI");
+        }
+        this.geometry = geometry;
+        this.firstToMove = firstToMove;
+        this.difficulty = difficulty;
+        this.columns = columns;
+
+        Position position = new Position(geometry, firstToMove);
+        for (int i = 0; i < columns.length; i++) {
+            int column = columns[i];
+            if (column < 0 || column >= geometry.getColumns() || !position.canPlay(column)) {
+                throw new IllegalArgumentException("Illegal move in column " + column + " at ply " + i);
+            }
+            if (i > 0 && position.isWinAt(columns[i - 1])) {
+                throw new IllegalArgumentException("Move after the end of the game at ply " + i);
+            }
+            position.play(column);
+        }
+    }
+
+    public static GameRecord of(Game game, String difficulty) {
+        return fromMoveLog(game.getGeometry(), game.getFirstToMove(), difficulty, game.getMoveLog());
+    }
+
+    public static GameRecord fromMoveLog(int firstToMove, String difficulty, List<GameData.Move> moveLog) {
+        return fromMoveLog(BoardGeometry.STANDARD, firstToMove, difficulty, moveLog);
+    }
+
+    public static GameRecord fromMoveLog(BoardGeometry geometry, int firstToMove, String difficulty,
+                                         List<GameData.Move> moveLog) {
+        byte[] columns = new byte[moveLog.size()];
+        for (int i = 0; i < columns.length; i++) columns[i] = (byte) moveLog.get(i).column;
+        return new GameRecord(geometry, firstToMove, difficulty, columns);
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public int getFirstToMove() {
+        return firstToMove;
+    }
+
+    // A Difficulty name, another name from a text file, or null if not recorded
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public int getMoveCount() {
+        return columns.length;
+    }
+
+    public int getColumn(int ply) {
+        return columns[ply];
+    }
+
+    // Position after every move of the record
+    public Position toPosition() {
+        Position position = new Position(geometry, firstToMove);
+        for (byte column : columns) position.play(column);
+        return position;
+    }
+
+    // Start a new game on the record's first mover and play every move; the game must be on the record's board
+    public void replay(Game game) {
+        if (game.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Game on a " + game.getGeometry() + " board cannot replay a " + geometry + " record");
+        }
+        game.newGame(firstToMove);
+        for (byte column : columns) game.play(column);
+    }
+
+    // Binary code of the difficulty, 0 if it has none
+    int difficultyCode() {
+        for (int code = 1; code < DIFFICULTIES.length; code++) {
+            if (DIFFICULTIES[code].equalsIgnoreCase(difficulty)) return code;
+        }
+        return 0;
+    }
+
+    // Read one game in the text format. Keywords are case-insensitive, so both "PLAYER:" and "Player:"
+    // move lines load. Without a "plays first" line the player of the first move moved first, without a
+    // "Board:" line the game was on the standard board.
+    public static GameRecord readText(BufferedReader reader) throws IOException {
+        BoardGeometry geometry = BoardGeometry.STANDARD;
+        Integer firstToMove = null;
+        String difficulty = null;
+        byte[] moves = new byte[BoardGeometry.MAX_CELLS];
+        int count = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            String lower = line.toLowerCase(Locale.ROOT);
+            if (lower.isEmpty() || lower.equals("log of moves:")) continue;
+
+            if (lower.endsWith("plays first")) {
+                firstToMove = lower.startsWith("ai") ? GameConfig.AI : GameConfig.PLAYER;
+            }
+            else if (lower.startsWith("difficulty:")) {
+                difficulty = line.substring("difficulty:".length()).trim();
+            }
+            else if (lower.startsWith("board:")) {
+                try {
+                    geometry = BoardGeometry.parse(lower.substring("board:".length()).trim());
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(e.getMessage());
+                }
+            }
+            else {
+                int columnStart = lower.indexOf("column ");
+                int columnEnd = lower.indexOf(',', columnStart);
+                if (columnStart < 0 || columnEnd < 0) throw new IOException("Unreadable line: " + line);
+                if (count == moves.length) throw new IOException("More moves than cells on the board");
+                if (firstToMove == null) firstToMove = lower.startsWith("ai") ? GameConfig.AI : GameConfig.PLAYER;
+                int column;
+                try {
+                    column = Integer.parseInt(line.substring(columnStart + 7, columnEnd).trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Unreadable line: " + line);
+                }
+                if (column < 0 || column >= BoardGeometry.MAX_COLUMNS) throw new IOException("Illegal move in column " + column);
+                moves[count++] = (byte) column;
+            }
+        }
+
+        try {
+            return new GameRecord(geometry, firstToMove != null ? firstToMove : GameConfig.PLAYER, difficulty,
+                    Arrays.copyOf(moves, count));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+
+    // Write the game in the text format, rows included; the difficulty line only if one was recorded and
+    // the board line only off the standard board, so standard games still load in older versions
+    public void writeText(Writer writer) throws IOException {
+        writer.write((firstToMove == GameConfig.AI ? "AI" : "Player") + " plays first\n");
+        if (!geometry.isStandard()) writer.write("Board: " + geometry + "\n");
+        if (difficulty != null) writer.write("Difficulty: " + difficulty + "\n");
+        writer.write("Log of moves:\n");
+        Position position = new Position(geometry, firstToMove);
+        for (byte column : columns) {
+            String player = position.getToMove() == GameConfig.PLAYER ? "PLAYER" : "AI";
+            writer.write(player + ": column " + column + ", row " + position.getEmptyRow(column) + "\n");
+            position.play(column);
+        }
+    }
+}
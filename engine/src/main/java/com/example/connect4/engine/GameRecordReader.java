@@ -0,0 +1,111 @@
+package com.example.connect4.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Streams the records of a binary game archive written by GameRecordWriter, one at a time, through a
+// fixed buffer; an archive of any size is read in constant memory.
+public class GameRecordReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final BoardGeometry geometry;
+    private final int bitsPerMove;
+    private final byte[] moves;
+    private boolean endOfFile;
+
+    public GameRecordReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            buffer.flip(); // Start empty
+            fill(GameRecordWriter.HEADER_SIZE);
+            geometry = GameRecordWriter.readHeader(buffer);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        bitsPerMove = GameRecordWriter.bitsPerMove(geometry.getColumns());
+        moves = new byte[geometry.getCells()];
+    }
+
+    // Board every record of the archive is on
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    // True if the file starts like a game archive, used to tell archives from text save files
+    public static boolean isArchive(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(magic, 0);
+            return !magic.hasRemaining() && magic.getInt(0) == GameRecordWriter.MAGIC;
+        }
+    }
+
+    // Read until at least count bytes are buffered or the file ends
+    private void fill(int count) throws IOException {
+        if (buffer.remaining() >= count || endOfFile) return;
+        buffer.compact();
+        while (buffer.position() < count) {
+            if (channel.read(buffer) < 0) {
+                endOfFile = true;
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    // Next record, or null at the end of the archive
+    public GameRecord read() throws IOException {
+        fill(5);
+        if (!buffer.hasRemaining()) return null;
+
+        // Varint header
+        int header = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (!buffer.hasRemaining() || shift > 28) throw new IOException("Corrupt game archive header");
+            int b = buffer.get();
+            header |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) break;
+        }
+        int firstToMove = (header & 1) != 0 ? GameConfig.AI : GameConfig.PLAYER;
+        int difficultyCode = (header >>> 1) & ((1 << GameRecordWriter.DIFFICULTY_BITS) - 1);
+        int count = header >>> (GameRecordWriter.DIFFICULTY_BITS + 1);
+        if (count > moves.length) throw new IOException("Corrupt game archive: " + count + " moves");
+
+        int bytes = (count * bitsPerMove + 7) / 8;
+        fill(bytes);
+        if (buffer.remaining() < bytes) throw new IOException("Truncated game archive");
+
+        int moveMask = (1 << bitsPerMove) - 1;
+        int bits = 0;
+        int pending = 0;
+        for (int i = 0; i < count; i++) {
+            while (bits < bitsPerMove) {
+                pending |= (buffer.get() & 0xFF) << bits;
+                bits += 8;
+            }
+            moves[i] = (byte) (pending & moveMask);
+            pending >>>= bitsPerMove;
+            bits -= bitsPerMove;
+        }
+
+        String difficulty = difficultyCode < GameRecord.DIFFICULTIES.length ? GameRecord.DIFFICULTIES[difficultyCode] : null;
+        try {
+            return new GameRecord(geometry, firstToMove, difficulty, Arrays.copyOf(moves, count));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt game archive: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.connect4.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Appends GameRecords to a binary game archive, so millions of games go into one file.
+// File layout: int magic, byte version, byte columns, byte rows, byte win length, then one record after another:
+//   varint header = move count << 5 | difficulty code << 1 | 1 if the AI moved first
+//   the columns packed bitsPerMove(columns) bits each (3 on the standard board), low bits first,
+//   padded to a whole byte.
+// A full 7x6 game takes 18 bytes instead of about 1 KB in the text save format.
+// Every record of an archive is on the board of its header. Version 1 archives have no win length byte,
+// they hold connect four games; they are still read and appended to.
+// Not thread-safe; give every writing thread its own archive or lock around append.
+public class GameRecordWriter implements Closeable {
+    public static final int MAGIC = 0x43344752; // "C4GR"
+    public static final int VERSION = 2;
+    static final int HEADER_SIZE = 8;
+    private static final int VERSION_1_HEADER_SIZE = 7;
+    static final int DIFFICULTY_BITS = 4;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final BoardGeometry geometry;
+    private final int bitsPerMove;
+    private long recordCount;
+
+    // Open an archive of standard games for appending, creating it if it does not exist
+    public GameRecordWriter(Path path) throws IOException {
+        this(path, BoardGeometry.STANDARD);
+    }
+
+    // Open an archive for appending games on the given board, creating it if it does not exist
+    public GameRecordWriter(Path path, BoardGeometry geometry) throws IOException {
+        this.geometry = geometry;
+        bitsPerMove = bitsPerMove(geometry.getColumns());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                buffer.putInt(MAGIC).put((byte) VERSION).put((byte) geometry.getColumns()).put((byte) geometry.getRows())
+                        .put((byte) geometry.getWinLength());
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                channel.read(header, 0);
+                header.flip();
+                if (readHeader(header) != geometry) throw new IOException("Game archive was written for another board");
+            }
+            channel.position(channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Bits needed to store a column number
+    static int bitsPerMove(int columns) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(columns - 1));
+    }
+
+    // Board of the archive from its header; leaves the buffer at the first record
+    static BoardGeometry readHeader(ByteBuffer header) throws IOException {
+        if (header.remaining() < VERSION_1_HEADER_SIZE || header.getInt() != MAGIC) throw new IOException("Not a game archive");
+        int version = header.get();
+        if (version != 1 && version != VERSION) throw new IOException("Unsupported game archive version");
+        int columns = header.get();
+        int rows = header.get();
+        int winLength = GameConfig.WIN_LENGTH;
+        if (version > 1) {
+            if (!header.hasRemaining()) throw new IOException("Truncated game archive header");
+            winLength = header.get();
+        }
+        try {
+            return BoardGeometry.of(columns, rows, winLength);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt game archive header: " + e.getMessage());
+        }
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    // Throws IllegalArgumentException if the record is on another board than the archive
+    public void append(GameRecord record) throws IOException {
+        if (record.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Cannot append a " + record.getGeometry() + " game to a " + geometry + " archive");
+        }
+        int moves = record.getMoveCount();
+        int header = record.getFirstToMove() == GameConfig.AI ? 1 : 0;
+        header |= record.difficultyCode() << 1;
+        header |= moves << (DIFFICULTY_BITS + 1);
+        if (buffer.remaining() < 5 + (moves * bitsPerMove + 7) / 8) flushBuffer();
+
+        // Varint: 7 bits per byte, high bit set on all but the last byte
+        while ((header & ~0x7F) != 0) {
+            buffer.put((byte) (header & 0x7F | 0x80));
+            header >>>= 7;
+        }
+        buffer.put((byte) header);
+
+        int bits = 0;
+        int pending = 0;
+        for (int i = 0; i < moves; i++) {
+            pending |= record.getColumn(i) << bits;
+            bits += bitsPerMove;
+            while (bits >= 8) {
+                buffer.put((byte) pending);
+                pending >>>= 8;
+                bits -= 8;
+            }
+        }
+        if (bits > 0) buffer.put((byte) pending);
+        recordCount++;
+    }
+
+    // Records appended through this writer
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    // Write everything appended so far to the file
+    public void flush() throws IOException {
+        flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+}
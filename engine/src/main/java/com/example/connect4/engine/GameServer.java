@@ -0,0 +1,403 @@
+package com.example.connect4.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Hosts many human-vs-AI games over a line-based text protocol.
+// One selector thread owns every connection and every Game, so an idle session costs a Game and a small
+// read buffer instead of a thread. Searches run on a fixed pool of AI threads, each holding its own
+// engines, and hand their moves back to the selector thread; a busy pool never stalls the I/O.
+//
+// Protocol, one command per line, case-insensitive:
+//   NEW [PLAYER|AI] [BEGINNER|EASY|MEDIUM|HARD|EXPERT] [COLUMNSxROWS[xWIN]]
+//                                        -> OK NEW, then MOVE ... if the AI moves first; the board is
+//                                           7x6 connect four unless one is given, e.g. NEW AI HARD 9x7x5.
+//                                           Every level searches a fixed number of nodes per move at
+//                                           most (Difficulty), so the CPU cost of a move is bounded
+//   PLAY <column>                        -> OK PLAY <column> <row>, then END WIN|DRAW or MOVE <column> <row>
+//   STATUS                               -> STATUS <IN_PROGRESS|PLAYER_WON|AI_WON|DRAW> <PLAYER|AI> <columns played or ->
+//   QUIT                                 -> BYE
+// After an AI move the server may also send END LOSE or END DRAW; errors are ERR <message>.
+// Usage: GameServer [port] [AI threads]
+//   -Dconnect4.metrics.port=<port> serves search metrics on http://localhost:<port>/metrics
+//   -Dconnect4.jfr=true records a JFR event per AI move while a flight recording runs
+//   -Dconnect4.cache.megabytes=<size> and -Dconnect4.cache.file=<path> share search results between
+//   games and runs, see PositionCache
+public class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 4040;
+    public static final String METRICS_PORT_PROPERTY = "connect4.metrics.port";
+    public static final String JFR_PROPERTY = "connect4.jfr";
+    private static final int MAX_LINE_LENGTH = 128;
+    private static final String DEFAULT_DIFFICULTY = "HARD";
+
+    private final InetSocketAddress address;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService aiPool;
+    private final ThreadLocal<Map<String, AI>> engines = ThreadLocal.withInitial(HashMap::new);
+    private final Queue<Runnable> finishedSearches = new ConcurrentLinkedQueue<>();
+    private final List<SearchListener> searchListeners = new CopyOnWriteArrayList<>();
+    private Thread selectorThread;
+    private volatile boolean running;
+    private int sessionCount;
+
+    // State of one connection, only touched on the selector thread
+    private static class Session {
+        final SocketChannel channel;
+        final ByteBuffer input = ByteBuffer.allocate(MAX_LINE_LENGTH);
+        Game game = new Game();
+        Queue<ByteBuffer> output; // Created only while there is unsent output
+        String difficulty = DEFAULT_DIFFICULTY;
+        boolean thinking;
+        boolean closing;
+        volatile boolean closed; // Read by AI threads to skip searches nobody waits for
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    public GameServer(InetSocketAddress address, int aiThreads) throws IOException {
+        if (aiThreads < 1) throw new IllegalArgumentException("aiThreads must be at least 1");
+        this.address = address;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+
+        // At most one search per session is queued, so the pool's queue is bounded by the number of sessions
+        aiPool = Executors.newFixedThreadPool(aiThreads, runnable -> {
+            Thread thread = new Thread(runnable, "connect4-server-ai");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int aiThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), aiThreads);
+        String metricsPort = System.getProperty(METRICS_PORT_PROPERTY);
+        if (metricsPort != null) {
+            SearchMetrics metrics = new SearchMetrics();
+            metrics.serve(Integer.parseInt(metricsPort));
+            server.addSearchListener(metrics);
+        }
+        if (Boolean.getBoolean(JFR_PROPERTY)) server.addSearchListener(new JfrSearchListener());
+        server.start();
+        System.err.println("Listening on " + server.getAddress() + " with " + aiThreads + " AI threads");
+    }
+
+    public void start() throws IOException {
+        serverChannel.bind(address, 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        running = true;
+        selectorThread = new Thread(this::run, "connect4-server");
+        selectorThread.start();
+    }
+
+    // Listen to the searches of every AI the server creates; add listeners before start()
+    public void addSearchListener(SearchListener listener) {
+        searchListeners.add(listener);
+    }
+
+    // Bound address, with the real port when started on port 0
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    // Open connections, only exact when read on the selector thread
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        if (selectorThread != null) {
+            try {
+                selectorThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        aiPool.shutdownNow();
+        for (SelectionKey key : selector.keys()) key.channel().close();
+        selector.close();
+    }
+
+    // A failure in one session closes that session only; the loop must survive anything, every session
+    // depends on this one thread
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                Runnable finished;
+                while ((finished = finishedSearches.poll()) != null) finished.run();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) accept();
+                    else {
+                        Session session = (Session) key.attachment();
+                        try {
+                            if (key.isReadable()) read(session);
+                            if (key.isValid() && key.isWritable()) flush(session);
+                        } catch (IOException e) {
+                            closeSession(session); // The client went away
+                        } catch (RuntimeException e) {
+                            e.printStackTrace(); // E.g. the key was cancelled by a client closing since select
+                            closeSession(session);
+                        }
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new Session(channel));
+            sessionCount++;
+        }
+    }
+
+    private void read(Session session) throws IOException {
+        if (session.channel.read(session.input) < 0) {
+            closeSession(session);
+            return;
+        }
+
+        // Handle every complete line, keep a partial one for the next read
+        ByteBuffer input = session.input;
+        input.flip();
+        int lineStart = 0;
+        for (int i = 0; i < input.limit(); i++) {
+            if (input.get(i) != '\n') continue;
+            String line = new String(input.array(), lineStart, i - lineStart, StandardCharsets.US_ASCII).trim();
+            lineStart = i + 1;
+            if (!line.isEmpty()) handle(session, line);
+            if (session.closing) return;
+        }
+        input.position(lineStart);
+        input.compact();
+
+        if (!input.hasRemaining()) {
+            send(session, "ERR line too long");
+            session.closing = true;
+            flush(session);
+        }
+    }
+
+    private void handle(Session session, String line) throws IOException {
+        String[] words = line.toUpperCase(Locale.ROOT).split("\\s+");
+        switch (words[0]) {
+            case "NEW": newGame(session, words); break;
+            case "PLAY": play(session, words); break;
+            case "STATUS": send(session, status(session.game)); break;
+            case "QUIT":
+                send(session, "BYE");
+                session.closing = true;
+                flush(session);
+                break;
+            default: send(session, "ERR unknown command " + words[0]);
+        }
+    }
+
+    private void newGame(Session session, String[] words) throws IOException {
+        if (session.thinking) {
+            send(session, "ERR AI is thinking");
+            return;
+        }
+        int firstToMove = GameConfig.PLAYER;
+        String difficulty = DEFAULT_DIFFICULTY;
+        BoardGeometry geometry = BoardGeometry.STANDARD;
+        for (int i = 1; i < words.length; i++) {
+            switch (words[i]) {
+                case "PLAYER": firstToMove = GameConfig.PLAYER; break;
+                case "AI": firstToMove = GameConfig.AI; break;
+                default:
+                    if (Difficulty.named(words[i]) != null) {
+                        difficulty = words[i];
+                        break;
+                    }
+                    try {
+                        geometry = BoardGeometry.parse(words[i]);
+                    } catch (IllegalArgumentException e) {
+                        send(session, "ERR unknown option " + words[i]);
+                        return;
+                    }
+            }
+        }
+
+        if (session.game.getGeometry() != geometry) session.game = new Game(geometry, firstToMove);
+        session.game.newGame(firstToMove);
+        session.difficulty = difficulty;
+        send(session, "OK NEW");
+        if (firstToMove == GameConfig.AI) startAiMove(session);
+    }
+
+    private void play(Session session, String[] words) throws IOException {
+        if (session.thinking) {
+            send(session, "ERR AI is thinking");
+            return;
+        }
+        if (words.length != 2) {
+            send(session, "ERR usage: PLAY <column>");
+            return;
+        }
+        int column;
+        try {
+            column = Integer.parseInt(words[1]);
+        } catch (NumberFormatException e) {
+            send(session, "ERR column must be a number");
+            return;
+        }
+
+        Game game = session.game;
+        if (game.isOver()) {
+            send(session, "ERR game is over");
+            return;
+        }
+        int row = game.play(column);
+        if (row == GameConfig.INVALID) {
+            send(session, "ERR column " + column + " is not playable");
+            return;
+        }
+
+        send(session, "OK PLAY " + column + " " + row);
+        if (game.getStatus() == Game.Status.PLAYER_WON) send(session, "END WIN");
+        else if (game.getStatus() == Game.Status.DRAW) send(session, "END DRAW");
+        else startAiMove(session);
+    }
+
+    // Search on the AI pool; the move comes back through finishedSearches to the selector thread
+    private void startAiMove(Session session) {
+        session.thinking = true;
+        Position position = session.game.getPosition();
+        String difficulty = session.difficulty;
+        aiPool.execute(() -> {
+            int column = GameConfig.INVALID;
+            if (!session.closed) {
+                try {
+                    AI ai = engines.get().computeIfAbsent(difficulty, this::createEngine);
+                    column = ai.chooseColumn(position);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+            int chosenColumn = column;
+            finishedSearches.add(() -> finishAiMove(session, chosenColumn));
+            selector.wakeup();
+        });
+    }
+
+    // No PonderingAI here: the AI threads are shared by every session, thinking ahead in one game would
+    // take them from the others
+    private AI createEngine(String difficulty) {
+        AI ai = AI.forDifficulty(difficulty);
+        for (SearchListener listener : searchListeners) ai.addSearchListener(listener);
+        return ai;
+    }
+
+    private void finishAiMove(Session session, int column) {
+        session.thinking = false;
+        if (session.closed) return;
+        SelectionKey key = session.channel.keyFor(selector);
+        if (key == null || !key.isValid()) {
+            closeSession(session); // The channel closed while the AI was thinking
+            return;
+        }
+
+        try {
+            Game game = session.game;
+            int row = game.play(column);
+            if (row == GameConfig.INVALID) {
+                send(session, "ERR AI failed to move");
+                return;
+            }
+            send(session, "MOVE " + column + " " + row);
+            if (game.getStatus() == Game.Status.AI_WON) send(session, "END LOSE");
+            else if (game.getStatus() == Game.Status.DRAW) send(session, "END DRAW");
+        } catch (IOException e) {
+            closeSession(session);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            closeSession(session);
+        }
+    }
+
+    private static String status(Game game) {
+        StringBuilder line = new StringBuilder("STATUS ");
+        line.append(game.getStatus()).append(' ');
+        line.append(game.getToMove() == GameConfig.PLAYER ? "PLAYER" : "AI").append(' ');
+        for (GameData.Move move : game.getMoveLog()) line.append(move.column);
+        if (game.getMoveLog().isEmpty()) line.append('-');
+        return line.toString();
+    }
+
+    private void send(Session session, String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII));
+        if (session.output == null) {
+            session.channel.write(buffer);
+            if (!buffer.hasRemaining()) return;
+            session.output = new ArrayDeque<>();
+        }
+        // The socket is full: keep the rest and wait until it can be written
+        session.output.add(buffer);
+        session.channel.keyFor(selector).interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    private void flush(Session session) throws IOException {
+        Queue<ByteBuffer> output = session.output;
+        while (output != null && !output.isEmpty()) {
+            session.channel.write(output.peek());
+            if (output.peek().hasRemaining()) return;
+            output.poll();
+        }
+        session.output = null;
+        if (session.closing) {
+            closeSession(session);
+            return;
+        }
+        session.channel.keyFor(selector).interestOps(SelectionKey.OP_READ);
+    }
+
+    private void closeSession(Session session) {
+        if (session.closed) return;
+        session.closed = true;
+        sessionCount--;
+        try {
+            session.channel.close();
+        } catch (IOException e) {
+            // Already closed by the peer
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.connect4.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// Records every search as a "connect4.Search" JFR event, so a flight recording shows which positions
+// were slow next to GC and CPU data. Events are only built while a recording enables them.
+public class JfrSearchListener implements SearchListener {
+    @Name("connect4.Search")
+    @Label("Connect Four Search")
+    @Category("Connect Four")
+    @Description("One move chosen by an AI engine")
+    static class SearchEvent extends Event {
+        @Label("Engine")
+        String engine;
+
+        @Label("Board")
+        @Description("Columns x rows, and the win length when it is not four")
+        String board;
+
+        @Label("Position")
+        @Description("Zobrist hash of the stones and the side to move, the same in every run")
+        long positionHash;
+
+        @Label("Stones")
+        int stones;
+
+        @Label("Column")
+        int column;
+
+        @Label("Score")
+        int score;
+
+        @Label("Nodes")
+        long nodes;
+
+        @Label("Table Probes")
+        long tableProbes;
+
+        @Label("Table Hits")
+        long tableHits;
+
+        @Label("Cutoffs")
+        long cutoffs;
+
+        @Label("Completed Depth")
+        int completedDepth;
+
+        @Label("Max Depth")
+        int maxDepth;
+
+        @Label("Search Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+
+        @Label("Principal Variation")
+        String principalVariation;
+    }
+
+    @Override
+    public void searchFinished(AI ai, SearchStats stats) {
+        SearchEvent event = new SearchEvent();
+        if (!event.isEnabled()) return;
+
+        event.engine = ai.getClass().getSimpleName();
+        event.board = stats.getPosition().getGeometry().toString();
+        event.positionHash = stats.getPosition().getHash(); // Any board; Solver.key only takes the standard one
+        event.stones = stats.getPosition().getMoves();
+        event.column = stats.getColumn();
+        event.score = stats.getScore();
+        event.nodes = stats.getNodes();
+        event.tableProbes = stats.getTableProbes();
+        event.tableHits = stats.getTableHits();
+        event.cutoffs = stats.getCutoffs();
+        event.completedDepth = stats.getCompletedDepth();
+        event.maxDepth = stats.getMaxDepth();
+        event.elapsed = stats.getElapsedNanos();
+        StringBuilder line = new StringBuilder();
+        for (int move : stats.getPrincipalVariation()) line.append(move);
+        event.principalVariation = line.toString();
+        event.commit();
+    }
+}
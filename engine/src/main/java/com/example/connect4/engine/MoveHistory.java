@@ -0,0 +1,111 @@
+package com.example.connect4.engine;
+
+// Columns played in a game with a cursor, for undo, redo and jumping to any ply.
+// Undo and redo are one Position.undo or play. Every CHECKPOINT_INTERVAL plies a copy of the position is
+// kept, so a jump replays at most CHECKPOINT_INTERVAL - 1 moves from the nearest checkpoint below the
+// target, or steps from the current ply when that is shorter. Nothing is allocated after construction.
+public class MoveHistory {
+    public static final int CHECKPOINT_INTERVAL = 8;
+
+    private final byte[] columns;
+    private final Position[] checkpoints; // Position at ply i * interval
+    private final Position position;
+    private int ply;
+    private int length; // Moves recorded, including the ones undone and not yet replaced
+
+    public MoveHistory() {
+        this(GameConfig.PLAYER);
+    }
+
+    public MoveHistory(int firstToMove) {
+        this(BoardGeometry.STANDARD, firstToMove);
+    }
+
+    public MoveHistory(BoardGeometry geometry, int firstToMove) {
+        int cells = geometry.getCells();
+        columns = new byte[cells];
+        checkpoints = new Position[cells / CHECKPOINT_INTERVAL + 1];
+        position = new Position(geometry, firstToMove);
+        for (int i = 0; i < checkpoints.length; i++) checkpoints[i] = new Position(geometry, firstToMove);
+        clear(firstToMove);
+    }
+
+    // History of a recorded game, positioned after its last move
+    public static MoveHistory of(GameRecord record) {
+        MoveHistory history = new MoveHistory(record.getGeometry(), record.getFirstToMove());
+        for (int i = 0; i < record.getMoveCount(); i++) history.play(record.getColumn(i));
+        return history;
+    }
+
+    public void clear(int firstToMove) {
+        position.clear(firstToMove);
+        checkpoints[0].copyFrom(position);
+        ply = 0;
+        length = 0;
+    }
+
+    // Play a move at the current ply; moves that were undone after it are dropped
+    public void play(int column) {
+        position.play(column);
+        columns[ply++] = (byte) column;
+        length = ply;
+        if (ply % CHECKPOINT_INTERVAL == 0) checkpoints[ply / CHECKPOINT_INTERVAL].copyFrom(position);
+    }
+
+    public boolean canUndo() {
+        return ply > 0;
+    }
+
+    public boolean canRedo() {
+        return ply < length;
+    }
+
+    // Take back the last move; returns its column, or INVALID at the start of the game
+    public int undo() {
+        if (ply == 0) return GameConfig.INVALID;
+        int column = columns[--ply];
+        position.undo(column);
+        return column;
+    }
+
+    // Play the next undone move again; returns its column, or INVALID if there is none
+    public int redo() {
+        if (ply == length) return GameConfig.INVALID;
+        int column = columns[ply++];
+        position.play(column);
+        return column;
+    }
+
+    // Move the cursor to any ply between 0 and size()
+    public void jumpTo(int target) {
+        if (target < 0 || target > length) throw new IllegalArgumentException("No ply " + target + " in history");
+
+        int fromCheckpoint = target % CHECKPOINT_INTERVAL;
+        if (fromCheckpoint < Math.abs(target - ply)) {
+            position.copyFrom(checkpoints[target / CHECKPOINT_INTERVAL]);
+            ply = target - fromCheckpoint;
+        }
+        while (ply < target) position.play(columns[ply++]);
+        while (ply > target) position.undo(columns[--ply]);
+    }
+
+    // Number of moves before the cursor
+    public int getPly() {
+        return ply;
+    }
+
+    // Number of moves recorded, undone ones included
+    public int size() {
+        return length;
+    }
+
+    public int getColumn(int ply) {
+        if (ply < 0 || ply >= length) throw new IndexOutOfBoundsException("No ply " + ply + " in history");
+        return columns[ply];
+    }
+
+    // Position at the cursor; owned by the history, copy it before changing it
+    public Position getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.connect4.engine;
+
+import java.io.DataOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Solved scores of positions, keyed by Solver.canonicalKey and sorted for binary search.
+// Version 1 books hold both mirror images of every position and are still read; a canonical key is always one of them.
+// File layout (big-endian): int magic, byte version, byte columns, byte rows, byte max ply, int entry count,
+// then the entry count keys as longs and the entry count scores as bytes.
+// The book reads straight from a ByteBuffer, so a memory-mapped file is searched in place and
+// every JVM on the host shares the same page-cached copy.
+public class OpeningBook {
+    public static final int MAGIC = 0x43344F42; // "C4OB"
+    public static final int VERSION = 2; // Canonical keys, half the entries of version 1
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+    static final int HEADER_SIZE = 12;
+    private static final int ENTRY_SIZE = Long.BYTES + 1; // Key and score
+
+    private final ByteBuffer buffer;
+    private final int maxPly;
+    private final int count;
+    private final int scoresOffset;
+
+    private OpeningBook(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) throw new IOException("Not an opening book");
+        if (buffer.get(4) != VERSION && buffer.get(4) != 1) throw new IOException("Unsupported opening book version");
+        if (buffer.get(5) != GameConfig.COLUMNS || buffer.get(6) != GameConfig.ROWS) {
+            throw new IOException("Opening book was built for another board size");
+        }
+        // A corrupt count must not wrap around in int offsets and pass the length check
+        int count = buffer.getInt(8);
+        if (count < 0) throw new IOException("Corrupt opening book: negative entry count");
+        if (HEADER_SIZE + count * (long) ENTRY_SIZE > buffer.limit()) throw new IOException("Truncated opening book");
+
+        this.buffer = buffer;
+        this.maxPly = buffer.get(7);
+        this.count = count;
+        this.scoresOffset = HEADER_SIZE + count * Long.BYTES;
+    }
+
+    // Copy a book into the heap, used for the bundled resource
+    public static OpeningBook read(InputStream input) throws IOException {
+        return new OpeningBook(ByteBuffer.wrap(input.readAllBytes()));
+    }
+
+    // Map a book file read-only; nothing but the header is read until positions are looked up
+    public static OpeningBook map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Opening book larger than 2 GB");
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Keys must be sorted and unique
+    public static void write(Path path, int maxPly, long[] keys, byte[] scores, int count) throws IOException {
+        try (OutputStream output = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(GameConfig.COLUMNS);
+            out.writeByte(GameConfig.ROWS);
+            out.writeByte(maxPly);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) out.writeLong(keys[i]);
+            out.write(scores, 0, count);
+        }
+    }
+
+    // Deepest ply (number of stones) covered by the book
+    public int getMaxPly() {
+        return maxPly;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Offsets fit in an int: the constructor checked that every entry lies within the buffer
+    public long getKey(int index) {
+        return buffer.getLong(HEADER_SIZE + index * Long.BYTES);
+    }
+
+    public int getScoreAt(int index) {
+        return buffer.get(scoresOffset + index);
+    }
+
+    // Score for the side to move, or UNKNOWN if the position is not in the book; key must be canonical
+    public int getScore(long key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = getKey(middle);
+            if (middleKey < key) low = middle + 1;
+            else if (middleKey > key) high = middle - 1;
+            else return getScoreAt(middle);
+        }
+        return UNKNOWN;
+    }
+}
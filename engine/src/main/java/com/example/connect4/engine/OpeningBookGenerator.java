@@ -0,0 +1,135 @@
+package com.example.connect4.engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Builds a book of every position with up to maxPly stones where nobody has won yet.
+// Only the deepest ply is searched, by one Solver per thread; shallower scores are backed up from their children.
+// Positions are kept as sorted arrays of canonical Solver keys, so mirror images are stored once and the
+// tool scales to books of hundreds of MB.
+// Usage: OpeningBookGenerator <max ply> <output file> [threads]
+//   e.g. OpeningBookGenerator 8 engine/src/main/resources/opening-book.bin
+public class OpeningBookGenerator {
+    private static final int CELLS = GameConfig.ROWS * GameConfig.COLUMNS;
+    private static final int SOLVER_TABLE_MEGABYTES = 256;
+    private static final int PROGRESS_INTERVAL = 10000;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: OpeningBookGenerator <max ply> <output file> [threads]");
+            System.exit(1);
+        }
+        int maxPly = Integer.parseInt(args[0]);
+        Path output = Paths.get(args[1]);
+        int threads = args.length == 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        generate(maxPly, threads, output);
+    }
+
+    public static void generate(int maxPly, int threads, Path output) throws IOException, InterruptedException {
+        // Enumerate every ply as a sorted array of unique keys
+        long[][] layers = new long[maxPly + 1][];
+        layers[0] = new long[] { Solver.key(0, 0) };
+        for (int ply = 1; ply <= maxPly; ply++) {
+            layers[ply] = expand(layers[ply - 1]);
+            System.err.println("Ply " + ply + ": " + layers[ply].length + " positions");
+        }
+
+        byte[][] scores = new byte[maxPly + 1][];
+        scores[maxPly] = solveLayer(layers[maxPly], threads);
+        for (int ply = maxPly - 1; ply >= 0; ply--) {
+            scores[ply] = backUpLayer(layers[ply], layers[ply + 1], scores[ply + 1]);
+        }
+
+        // Keys of different plies never collide; pack key and score together to sort them as one array
+        int total = 0;
+        for (long[] layer : layers) total += layer.length;
+        long[] packed = new long[total];
+        int index = 0;
+        for (int ply = 0; ply <= maxPly; ply++) {
+            for (int i = 0; i < layers[ply].length; i++) {
+                packed[index++] = layers[ply][i] << 8 | (scores[ply][i] & 0xFF);
+            }
+        }
+        Arrays.parallelSort(packed);
+
+        long[] keys = new long[total];
+        byte[] values = new byte[total];
+        for (int i = 0; i < total; i++) {
+            keys[i] = packed[i] >>> 8;
+            values[i] = (byte) packed[i];
+        }
+        OpeningBook.write(output, maxPly, keys, values, total);
+        System.err.println("Wrote " + total + " positions up to ply " + maxPly + " to " + output);
+    }
+
+    // Children of every position that do not end the game, sorted and without duplicates
+    private static long[] expand(long[] layer) {
+        long[] children = new long[layer.length * GameConfig.COLUMNS];
+        int count = 0;
+        for (long key : layer) {
+            long mask = Solver.maskFromKey(key);
+            long current = key - mask;
+            long possible = Solver.possible(mask);
+            for (int column = 0; column < GameConfig.COLUMNS; column++) {
+                long move = possible & Solver.columnMask(column);
+                if (move == 0 || Position.alignment(current | move)) continue;
+                children[count++] = Solver.canonicalKey(Solver.key(current ^ mask, mask | move));
+            }
+        }
+
+        Arrays.parallelSort(children, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || children[i] != children[unique - 1]) children[unique++] = children[i];
+        }
+        return Arrays.copyOf(children, unique);
+    }
+
+    private static byte[] solveLayer(long[] layer, int threads) throws InterruptedException {
+        byte[] scores = new byte[layer.length];
+        AtomicInteger next = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                Solver solver = new Solver(SOLVER_TABLE_MEGABYTES);
+                int i;
+                while ((i = next.getAndIncrement()) < layer.length) {
+                    long mask = Solver.maskFromKey(layer[i]);
+                    scores[i] = (byte) solver.solve(layer[i] - mask, mask, Long.bitCount(mask), false);
+                    if ((i + 1) % PROGRESS_INTERVAL == 0) System.err.println("Solved " + (i + 1) + " / " + layer.length);
+                }
+            }, "book-solver-" + t);
+            workers[t].start();
+        }
+        for (Thread worker : workers) worker.join();
+        return scores;
+    }
+
+    // Score of each position from the scores of the next ply: best child, or an immediate win
+    private static byte[] backUpLayer(long[] layer, long[] childLayer, byte[] childScores) {
+        byte[] scores = new byte[layer.length];
+        for (int i = 0; i < layer.length; i++) {
+            long mask = Solver.maskFromKey(layer[i]);
+            long current = layer[i] - mask;
+            int moves = Long.bitCount(mask);
+            if (Solver.canWinNext(current, mask)) {
+                scores[i] = (byte) ((CELLS + 1 - moves) / 2);
+                continue;
+            }
+
+            int best = Integer.MIN_VALUE;
+            long possible = Solver.possible(mask);
+            for (int column = 0; column < GameConfig.COLUMNS; column++) {
+                long move = possible & Solver.columnMask(column);
+                if (move == 0) continue;
+                int child = Arrays.binarySearch(childLayer, Solver.canonicalKey(Solver.key(current ^ mask, mask | move)));
+                best = Math.max(best, -childScores[child]);
+            }
+            scores[i] = (byte) best;
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.connect4.engine;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Lazy SMP: helper threads run the same AlphaBetaAI search on the same position and fill a shared
+// transposition table, so the main search finds most of its subtrees already solved.
+// The main engine's answer is returned and the helpers are stopped as soon as it finishes.
+public class ParallelAI extends AI {
+    private static final int DEFAULT_DEPTH = 7;
+    private static final int DEFAULT_TABLE_MEGABYTES = 64;
+
+    private final TranspositionTable table;
+    private final AlphaBetaAI mainEngine;
+    private final AlphaBetaAI[] helpers;
+    private final ExecutorService pool;
+    private final SearchListener mainStatsCollector = (ai, stats) -> mainStats = stats;
+    private SearchStats mainStats; // Stats of the main engine's last search, only gathered while someone listens
+
+    public ParallelAI() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelAI(int threads) {
+        this(threads, DEFAULT_DEPTH, DEFAULT_TABLE_MEGABYTES);
+    }
+
+    public ParallelAI(int threads, int maxDepth, int tableMegabytes) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+
+        table = new TranspositionTable(tableMegabytes);
+        mainEngine = new AlphaBetaAI(maxDepth, table);
+        helpers = new AlphaBetaAI[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new AlphaBetaAI(maxDepth, table);
+            helpers[i].setHelperIndex(i + 1);
+        }
+
+        // Daemon threads so an AI that is never shut down does not keep the JVM alive
+        pool = Executors.newFixedThreadPool(Math.max(1, helpers.length), runnable -> {
+            Thread thread = new Thread(runnable, "connect4-search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreadCount() {
+        return helpers.length + 1;
+    }
+
+    // Nodes visited by all threads during the last search
+    @Override
+    public long getNodeCount() {
+        long nodes = mainEngine.getNodeCount();
+        for (AlphaBetaAI helper : helpers) nodes += helper.getNodeCount();
+        return nodes;
+    }
+
+    // Only the main engine's choice is returned, timing between threads still varies the result
+    @Override
+    public void setSeed(long seed) {
+        super.setSeed(seed);
+        mainEngine.setSeed(seed);
+    }
+
+    @Override
+    public void newGame() {
+        table.clear();
+    }
+
+    // The main engine gathers stats only while this AI has listeners
+    @Override
+    public void addSearchListener(SearchListener listener) {
+        super.addSearchListener(listener);
+        mainEngine.removeSearchListener(mainStatsCollector);
+        mainEngine.addSearchListener(mainStatsCollector);
+    }
+
+    @Override
+    public void removeSearchListener(SearchListener listener) {
+        super.removeSearchListener(listener);
+        if (!hasSearchListeners()) mainEngine.removeSearchListener(mainStatsCollector);
+    }
+
+    public int getCompletedDepth() {
+        return mainEngine.getCompletedDepth();
+    }
+
+    public void setTimeBudget(long timeBudgetMillis) {
+        mainEngine.setTimeBudget(timeBudgetMillis);
+        for (AlphaBetaAI helper : helpers) helper.setTimeBudget(timeBudgetMillis);
+    }
+
+    @Override
+    public int chooseColumn(ArrayList<ArrayList<Integer>> board) {
+        return chooseColumn(Position.fromBoard(board, GameConfig.AI));
+    }
+
+    @Override
+    public int chooseColumn(Position position) {
+        long start = System.nanoTime();
+        table.newSearch();
+
+        CountDownLatch helpersDone = new CountDownLatch(helpers.length);
+        for (AlphaBetaAI helper : helpers) {
+            helper.setStopRequested(false);
+            pool.execute(() -> {
+                try {
+                    helper.chooseColumn(position);
+                } finally {
+                    helpersDone.countDown();
+                }
+            });
+        }
+
+        int column = mainEngine.chooseColumn(position);
+
+        // Stop the helpers and wait for them, so they never write into the next search. An interrupt (a
+        // cancelled ponder, a stopped tournament) aborts the main engine with the flag still set; the wait
+        // must not give up on it, or helpers still searching would be restarted by the next search.
+        for (AlphaBetaAI helper : helpers) helper.setStopRequested(true);
+        awaitUninterruptibly(helpersDone);
+
+        // Main engine's line, depth and counters, with the nodes of every thread
+        if (hasSearchListeners() && mainStats != null) {
+            SearchStats stats = mainStats;
+            mainStats = null;
+            stats.nodes = getNodeCount();
+            stats.elapsedNanos = System.nanoTime() - start;
+            fireSearchFinished(stats);
+        }
+        return column;
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+}
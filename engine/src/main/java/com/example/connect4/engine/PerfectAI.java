@@ -0,0 +1,175 @@
+package com.example.connect4.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+// Plays perfectly: every move is solved exactly, early positions come from an opening book when one is
+// bundled as BOOK_RESOURCE or given with -Dconnect4.book. None ships with the engine, which is why PerfectAI
+// is not a Difficulty level.
+// The solver gets half of the per-move time budget; if the solve does not fit, AlphaBetaAI searches with
+// the rest, so a move the solver gives up on is still searched deeply rather than in the last millisecond.
+// Without an opening book that is the case for most moves of the first dozen plies.
+// The solver and the book only know the standard board, other boards are searched by AlphaBetaAI alone.
+public class PerfectAI extends AI {
+    public static final String BOOK_RESOURCE = "/opening-book.bin";
+    public static final String BOOK_PATH_PROPERTY = "connect4.book"; // Book file to map instead of the resource
+    private static final long DEFAULT_TIME_BUDGET_MILLIS = 5000;
+
+    private final Solver solver = new Solver(TableHolder.TABLE);
+    private final AlphaBetaAI fallback = new AlphaBetaAI();
+    private final int[] centerOrder = new int[GameConfig.COLUMNS];
+    private long timeBudgetMillis = DEFAULT_TIME_BUDGET_MILLIS;
+    private boolean lastMoveSolved;
+    private int lastScore; // Solver score of the chosen move, or the fallback's score
+    private long nodeCount;
+
+    // Loaded on first use and shared by every PerfectAI
+    private static class BookHolder {
+        static final OpeningBook BOOK = loadBook();
+    }
+
+    // One solver table for the process, so engines pooled by PonderingAI or run on several threads
+    // do not hold 64 MB each
+    private static class TableHolder {
+        static final TranspositionTable TABLE = new TranspositionTable(Solver.DEFAULT_TABLE_MEGABYTES);
+    }
+
+    public PerfectAI() {
+        solver.setBook(BookHolder.BOOK);
+        for (int i = 0; i < GameConfig.COLUMNS; i++) {
+            centerOrder[i] = GameConfig.COLUMNS / 2 + (1 - 2 * (i % 2)) * (i + 1) / 2;
+        }
+    }
+
+    private static OpeningBook loadBook() {
+        // A large book on disk is mapped, so JVMs on the same host share its pages
+        String bookPath = System.getProperty(BOOK_PATH_PROPERTY);
+        if (bookPath != null) {
+            try {
+                return OpeningBook.map(Paths.get(bookPath));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        try (InputStream input = PerfectAI.class.getResourceAsStream(BOOK_RESOURCE)) {
+            if (input == null) return null; // Without a book early moves fall back to AlphaBetaAI more often
+            return OpeningBook.read(input);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Milliseconds allowed per move; 0 solves without a limit
+    public void setTimeBudget(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        super.setSeed(seed);
+        fallback.setSeed(seed);
+    }
+
+    @Override
+    public void newGame() {
+        fallback.newGame();
+    }
+
+    // Nodes solved and searched for the last move
+    @Override
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    // False if the last move came from the fallback search instead of the solver
+    public boolean isLastMoveSolved() {
+        return lastMoveSolved;
+    }
+
+    @Override
+    public int chooseColumn(ArrayList<ArrayList<Integer>> board) {
+        return chooseColumn(Position.fromBoard(board, GameConfig.AI));
+    }
+
+    @Override
+    public int chooseColumn(Position position) {
+        long start = System.nanoTime();
+        int column = search(position, start);
+        if (hasSearchListeners()) {
+            SearchStats stats = new SearchStats();
+            stats.position = new Position(position);
+            stats.column = column;
+            stats.score = lastScore;
+            stats.nodes = nodeCount;
+            stats.completedDepth = lastMoveSolved
+                    ? position.getGeometry().getCells() - position.getMoves() // Solved to the end of the game
+                    : fallback.getCompletedDepth();
+            stats.maxDepth = stats.completedDepth;
+            stats.elapsedNanos = System.nanoTime() - start;
+            stats.principalVariation = column == GameConfig.INVALID ? new int[0] : new int[] { column };
+            fireSearchFinished(stats);
+        }
+        return column;
+    }
+
+    private int search(Position position, long start) {
+        if (!position.getGeometry().isStandard()) {
+            lastMoveSolved = false;
+            fallback.setTimeBudget(timeBudgetMillis);
+            int column = fallback.chooseColumn(position);
+            nodeCount = fallback.getNodeCount();
+            lastScore = fallback.getLastScore();
+            return column;
+        }
+
+        long startNodes = solver.getNodeCount();
+        Position child = new Position(position);
+        lastMoveSolved = true;
+        nodeCount = 0;
+
+        // Immediate win, nothing to solve
+        for (int column : centerOrder) {
+            if (child.canPlay(column) && child.isWinningMove(column)) {
+                lastScore = (GameConfig.ROWS * GameConfig.COLUMNS + 1 - position.getMoves()) / 2;
+                return column;
+            }
+        }
+
+        solver.setDeadline(timeBudgetMillis > 0 ? start + timeBudgetMillis * 1_000_000 / 2 : Long.MAX_VALUE);
+        ArrayList<Integer> bestColumns = new ArrayList<>();
+        int bestScore = Integer.MIN_VALUE;
+        for (int column : centerOrder) {
+            if (!child.canPlay(column)) continue;
+
+            child.play(column);
+            int score = -solver.solve(child);
+            child.undo(column);
+
+            if (solver.isAborted()) {
+                // Out of its share of the time: search heuristically with what is left of the budget, at least half
+                lastMoveSolved = false;
+                long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                fallback.setTimeBudget(Math.max(1, timeBudgetMillis - elapsedMillis));
+                int fallbackColumn = fallback.chooseColumn(position);
+                nodeCount = solver.getNodeCount() - startNodes + fallback.getNodeCount();
+                lastScore = fallback.getLastScore();
+                return fallbackColumn;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestColumns.clear();
+            }
+            if (score == bestScore) bestColumns.add(column);
+        }
+
+        nodeCount = solver.getNodeCount() - startNodes;
+        lastScore = bestScore;
+        if (bestColumns.isEmpty()) return GameConfig.INVALID;
+        return bestColumns.get(random.nextInt(bestColumns.size()));
+    }
+}
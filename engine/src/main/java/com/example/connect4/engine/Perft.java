@@ -0,0 +1,434 @@
+package com.example.connect4.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Counts the move sequences of exactly depth plies from a position, like perft in chess: a game that ends
+// on the last ply counts, one that ends earlier does not go on. Every board implementation counts the same
+// tree its own way, and each is checked against a reference that shares no code with the others:
+//   array     the reference: a column-by-height int array, wins found by scanning the lines through the
+//             new stone; only the size and win length of the BoardGeometry are used
+//   gamedata  GameData.findEmptyRow, placePiece, checkWin and checkDraw, every move played; these delegate
+//             to Position and BoardGeometry, so this checks the GameData wrapper, not the win test
+//   position  Position.play with isWinAt and isFull after the move
+//   bitboard  Position.isWinningMove before the move, the last ply is counted without being played
+// The first plies are split into fork-join tasks, the subtrees below are counted on one thread each.
+// Usage: Perft <moves|game file> <depth> [-threads n] [-board COLUMNSxROWS[xWIN]] [-divide]
+//   moves: columns from 0, one character each (0-9, then a-d), the player moving first, e.g. 3323
+//   game file: a text save file, or a game archive whose last game is used
+//   -divide prints the count below every first move, for finding where two implementations part
+//   e.g. Perft "" 9
+//        Perft app/src/main/resources/game1.txt 8 -divide
+public class Perft {
+    private static final int SPLIT_PLIES = 3; // Plies below the first move split into tasks
+
+    public enum Implementation {
+        ARRAY("array"), GAME_DATA("gamedata"), POSITION("position"), BITBOARD("bitboard");
+
+        private final String displayName;
+
+        Implementation(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        private Walker start(GameRecord record) {
+            switch (this) {
+                case ARRAY: return new ArrayWalker(record);
+                case GAME_DATA: return new GameDataWalker(record);
+                case POSITION: return new PositionWalker(record.toPosition());
+                default: return new BitboardWalker(record.toPosition());
+            }
+        }
+    }
+
+    // A board under count; every task works on a copy of its own
+    private abstract static class Walker {
+        abstract Walker copy();
+
+        abstract int columns();
+
+        abstract boolean canPlay(int column);
+
+        // Play for the side to move; true if the move ended the game
+        abstract boolean play(int column);
+
+        abstract void undo(int column);
+
+        long count(int depth) {
+            if (depth == 0) return 1;
+            long count = 0;
+            for (int column = 0; column < columns(); column++) {
+                if (!canPlay(column)) continue;
+                boolean ended = play(column);
+                if (!ended || depth == 1) count += count(depth - 1);
+                undo(column);
+            }
+            return count;
+        }
+    }
+
+    // Stones in a plain array, a move wins if a line through it holds winLength stones of the mover
+    private static class ArrayWalker extends Walker {
+        private static final int[][] DIRECTIONS = { { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 } }; // Column, height steps
+
+        private final int columns;
+        private final int rows;
+        private final int winLength;
+        private final int[][] cells; // Column, height from the bottom; 0 empty, else 1 or 2
+        private final int[] heights;
+        private int moves;
+
+        ArrayWalker(GameRecord record) {
+            this(record.getGeometry().getColumns(), record.getGeometry().getRows(), record.getGeometry().getWinLength());
+            for (int ply = 0; ply < record.getMoveCount(); ply++) play(record.getColumn(ply));
+        }
+
+        private ArrayWalker(int columns, int rows, int winLength) {
+            this.columns = columns;
+            this.rows = rows;
+            this.winLength = winLength;
+            cells = new int[columns][rows];
+            heights = new int[columns];
+        }
+
+        @Override
+        Walker copy() {
+            ArrayWalker copy = new ArrayWalker(columns, rows, winLength);
+            for (int column = 0; column < columns; column++) {
+                System.arraycopy(cells[column], 0, copy.cells[column], 0, rows);
+            }
+            System.arraycopy(heights, 0, copy.heights, 0, columns);
+            copy.moves = moves;
+            return copy;
+        }
+
+        @Override
+        int columns() {
+            return columns;
+        }
+
+        @Override
+        boolean canPlay(int column) {
+            return heights[column] < rows;
+        }
+
+        @Override
+        boolean play(int column) {
+            int player = 1 + moves % 2;
+            int height = heights[column]++;
+            cells[column][height] = player;
+            moves++;
+            return wins(column, height, player) || moves == columns * rows;
+        }
+
+        @Override
+        void undo(int column) {
+            cells[column][--heights[column]] = 0;
+            moves--;
+        }
+
+        private boolean wins(int column, int height, int player) {
+            for (int[] direction : DIRECTIONS) {
+                int length = 1;
+                for (int sign = -1; sign <= 1; sign += 2) {
+                    int c = column + sign * direction[0];
+                    int h = height + sign * direction[1];
+                    while (c >= 0 && c < columns && h >= 0 && h < rows && cells[c][h] == player) {
+                        length++;
+                        c += sign * direction[0];
+                        h += sign * direction[1];
+                    }
+                }
+                if (length >= winLength) return true;
+            }
+            return false;
+        }
+    }
+
+    // The ArrayList board of GameData, kept with its move log so it can take moves back
+    private static class GameDataWalker extends Walker {
+        private final BoardGeometry geometry;
+        private final int firstToMove;
+        private final GameData data;
+        private int toMove;
+
+        GameDataWalker(GameRecord record) {
+            this(record.getGeometry(), record.getFirstToMove());
+            for (int ply = 0; ply < record.getMoveCount(); ply++) play(record.getColumn(ply));
+        }
+
+        private GameDataWalker(BoardGeometry geometry, int firstToMove) {
+            this.geometry = geometry;
+            this.firstToMove = firstToMove;
+            data = new GameData(geometry);
+            data.restartGame(firstToMove);
+            toMove = firstToMove;
+        }
+
+        @Override
+        Walker copy() {
+            GameDataWalker copy = new GameDataWalker(geometry, firstToMove);
+            for (GameData.Move move : data.getMoveLog()) copy.play(move.column);
+            return copy;
+        }
+
+        @Override
+        int columns() {
+            return geometry.getColumns();
+        }
+
+        @Override
+        boolean canPlay(int column) {
+            return data.findEmptyRow(column) != GameConfig.INVALID;
+        }
+
+        @Override
+        boolean play(int column) {
+            int row = data.placePiece(column, toMove);
+            data.logMove(toMove == GameConfig.AI ? "AI" : "PLAYER", column, row);
+            toMove = Position.opponent(toMove);
+            return data.checkWin(row, column) || data.checkDraw();
+        }
+
+        @Override
+        void undo(int column) {
+            data.undoMove();
+            toMove = Position.opponent(toMove);
+        }
+    }
+
+    private static class PositionWalker extends Walker {
+        final Position position;
+
+        PositionWalker(Position position) {
+            this.position = position;
+        }
+
+        @Override
+        Walker copy() {
+            return new PositionWalker(new Position(position));
+        }
+
+        @Override
+        int columns() {
+            return position.getGeometry().getColumns();
+        }
+
+        @Override
+        boolean canPlay(int column) {
+            return position.canPlay(column);
+        }
+
+        @Override
+        boolean play(int column) {
+            position.play(column);
+            return position.isWinAt(column) || position.isFull();
+        }
+
+        @Override
+        void undo(int column) {
+            position.undo(column);
+        }
+    }
+
+    // Knows a move wins before playing it, and that the last ply is one sequence per playable column
+    private static class BitboardWalker extends PositionWalker {
+        BitboardWalker(Position position) {
+            super(position);
+        }
+
+        @Override
+        Walker copy() {
+            return new BitboardWalker(new Position(position));
+        }
+
+        @Override
+        long count(int depth) {
+            if (depth == 0) return 1;
+            int columns = position.getGeometry().getColumns();
+            long count = 0;
+            for (int column = 0; column < columns; column++) {
+                if (!position.canPlay(column)) continue;
+                if (depth == 1) count++;
+                else if (!position.isWinningMove(column)) {
+                    position.play(column);
+                    count += count(depth - 1); // A full board has no playable column, it counts 0
+                    position.undo(column);
+                }
+            }
+            return count;
+        }
+    }
+
+    // Count of a subtree, split into one task per move for the first plies
+    private static class CountTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Walker walker;
+        private final int depth;
+        private final int splitPlies;
+
+        CountTask(Walker walker, int depth, int splitPlies) {
+            this.walker = walker;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+        }
+
+        @Override
+        protected Long compute() {
+            if (splitPlies == 0 || depth <= 1) return walker.count(depth);
+
+            List<CountTask> tasks = new ArrayList<>();
+            for (int column = 0; column < walker.columns(); column++) {
+                if (!walker.canPlay(column)) continue;
+                Walker child = walker.copy();
+                if (child.play(column)) continue; // Ended before the last ply
+                tasks.add(new CountTask(child, depth - 1, splitPlies - 1));
+            }
+            long count = 0;
+            for (CountTask task : invokeAll(tasks)) count += task.join();
+            return count;
+        }
+    }
+
+    // Count below every first move, by column; 0 for unplayable columns. A game that is already over has
+    // no moves, so every count is 0.
+    public static long[] divide(Implementation implementation, GameRecord start, int depth, ForkJoinPool pool) {
+        if (depth < 1) throw new IllegalArgumentException("depth must be at least 1");
+        Walker walker = implementation.start(start);
+        long[] counts = new long[walker.columns()];
+        if (isOver(start)) return counts;
+
+        for (int column = 0; column < counts.length; column++) {
+            if (!walker.canPlay(column)) continue;
+            Walker child = walker.copy();
+            if (child.play(column)) counts[column] = depth == 1 ? 1 : 0;
+            else counts[column] = pool.invoke(new CountTask(child, depth - 1, SPLIT_PLIES));
+        }
+        return counts;
+    }
+
+    public static long count(Implementation implementation, GameRecord start, int depth, ForkJoinPool pool) {
+        long total = 0;
+        for (long count : divide(implementation, start, depth, pool)) total += count;
+        return total;
+    }
+
+    private static boolean isOver(GameRecord record) {
+        int moves = record.getMoveCount();
+        if (moves == 0) return false;
+        Position position = record.toPosition();
+        return position.isWinAt(record.getColumn(moves - 1)) || position.isFull();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        BoardGeometry geometry = BoardGeometry.STANDARD;
+        boolean divide = false;
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-threads": threads = Integer.parseInt(args[++i]); break;
+                case "-board": geometry = BoardGeometry.parse(args[++i]); break;
+                case "-divide": divide = true; break;
+                default: positional.add(args[i]);
+            }
+        }
+        if (positional.size() != 2) {
+            System.err.println("Usage: Perft <moves|game file> <depth> [-threads n] [-board COLUMNSxROWS[xWIN]] [-divide]");
+            System.exit(1);
+        }
+        GameRecord start = readStart(positional.get(0), geometry);
+        int depth = Integer.parseInt(positional.get(1));
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        System.out.printf(Locale.ROOT, "Perft of %s on %s, depth %d, %d threads%n",
+                describe(start), start.getGeometry(), depth, threads);
+
+        Implementation reference = Implementation.ARRAY;
+        long[] expected = null;
+        List<long[]> results = new ArrayList<>();
+        boolean agree = true;
+        for (Implementation implementation : Implementation.values()) {
+            long begin = System.nanoTime();
+            long[] counts = divide(implementation, start, depth, pool);
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            long total = 0;
+            for (long count : counts) total += count;
+
+            boolean same = expected == null || Arrays.equals(counts, expected);
+            if (implementation == reference) expected = counts;
+            agree &= same;
+            results.add(counts);
+            System.out.printf(Locale.ROOT, "%-9s %d positions in %.3f s, %.0f positions/s%s%n",
+                    implementation.getDisplayName(), total, seconds, total / seconds, same ? "" : "  MISMATCH");
+        }
+
+        if (divide || !agree) {
+            StringBuilder header = new StringBuilder("column");
+            for (Implementation implementation : Implementation.values()) {
+                header.append('\t').append(implementation.getDisplayName());
+            }
+            System.out.println(header);
+            for (int column = 0; column < expected.length; column++) {
+                StringBuilder line = new StringBuilder().append(column);
+                for (long[] counts : results) line.append('\t').append(counts[column]);
+                System.out.println(line);
+            }
+        }
+        pool.shutdown();
+
+        System.out.println(agree ? "All implementations agree" : "Implementations disagree");
+        if (!agree) System.exit(1);
+    }
+
+    // A game file if one exists at the path, a move string otherwise
+    private static GameRecord readStart(String argument, BoardGeometry geometry) throws IOException {
+        Path path = argument.isEmpty() ? null : Paths.get(argument);
+        if (path != null && Files.isRegularFile(path)) {
+            if (GameRecordReader.isArchive(path)) {
+                try (GameRecordReader reader = new GameRecordReader(path)) {
+                    GameRecord last = null;
+                    GameRecord record;
+                    while ((record = reader.read()) != null) last = record;
+                    if (last == null) throw new IOException("The archive holds no games");
+                    return last;
+                }
+            }
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                return GameRecord.readText(reader);
+            }
+        }
+
+        byte[] columns = new byte[argument.length()];
+        for (int i = 0; i < columns.length; i++) {
+            int column = Character.digit(argument.charAt(i), BoardGeometry.MAX_COLUMNS);
+            if (column < 0) throw new IllegalArgumentException("Not a column: " + argument.charAt(i));
+            columns[i] = (byte) column;
+        }
+        return new GameRecord(geometry, GameConfig.PLAYER, null, columns);
+    }
+
+    private static String describe(GameRecord record) {
+        if (record.getMoveCount() == 0) return "the empty board";
+        StringBuilder moves = new StringBuilder();
+        for (int ply = 0; ply < record.getMoveCount(); ply++) {
+            moves.append(Character.forDigit(record.getColumn(ply), BoardGeometry.MAX_COLUMNS));
+        }
+        return "moves " + moves;
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.connect4.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+// Thinks on the opponent's time. After choosing a move it searches the position after every reply the
+// opponent can make, central columns first, on background threads. When chooseColumn is then called on
+// one of those positions, a finished search answers at once and one still running is waited for instead
+// of starting over; the searches of the other replies are cancelled.
+// Every search runs on an engine of its own from the factory. Engines are pooled, there are about one
+// more than threads; mind the table size of each. By default two threads ponder, pondering more replies at
+// once rarely pays for the engines it takes. Cancelled searches stop at once on engines that treat an
+// interrupt as running out of time (AlphaBetaAI, ParallelAI, PerfectAI), others finish in the background
+// and their result is dropped. Which engine answers depends on timing, so moves are not reproducible.
+public class PonderingAI extends AI {
+    private static final int DEFAULT_MAX_THREADS = 2;
+
+    private final Supplier<AI> factory;
+    private final ExecutorService pool;
+    private final ConcurrentLinkedQueue<Engine> idleEngines = new ConcurrentLinkedQueue<>();
+    private final List<Ponder> ponders = new ArrayList<>(); // Searches of the opponent's turn, guarded by itself
+    private volatile long gameNumber; // Engines last used in an earlier game forget it before searching
+    private long nodeCount;
+    private boolean lastMovePondered;
+    private long ponderHits;
+    private long ponderMisses;
+
+    // An engine and the game it last searched in
+    private static class Engine {
+        final AI ai;
+        long gameNumber;
+
+        Engine(AI ai) {
+            this.ai = ai;
+        }
+    }
+
+    // Background search of the position after one opponent reply
+    private static class Ponder {
+        final Position position;
+        Future<Integer> column;
+        volatile long nodes;
+        volatile SearchStats stats;
+
+        Ponder(Position position) {
+            this.position = position;
+        }
+    }
+
+    public PonderingAI(Supplier<AI> factory) {
+        this(factory, Math.max(1, Math.min(DEFAULT_MAX_THREADS, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    public PonderingAI(Supplier<AI> factory, int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+        this.factory = factory;
+
+        // Daemon threads so an AI that is never shut down does not keep the JVM alive
+        pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "connect4-ponder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // AI for a difficulty level that ponders; each pondered reply costs at most the level's node budget
+    public static AI forDifficulty(String difficulty) {
+        return new PonderingAI(() -> AI.forDifficulty(difficulty));
+    }
+
+    // Nodes of the search that chose the last move, pondered or not
+    @Override
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    // True if the last move came from a search started on the opponent's time
+    public boolean isLastMovePondered() {
+        return lastMovePondered;
+    }
+
+    // Moves answered by a pondered search
+    public long getPonderHits() {
+        return ponderHits;
+    }
+
+    // Moves searched from scratch because the position was not pondered
+    public long getPonderMisses() {
+        return ponderMisses;
+    }
+
+    @Override
+    public void newGame() {
+        stopPondering();
+        gameNumber++;
+    }
+
+    // Cancel the background searches, e.g. when the board changes other than by an opponent move.
+    // Safe to call from any thread, also while chooseColumn runs.
+    public void stopPondering() {
+        synchronized (ponders) {
+            for (Ponder ponder : ponders) ponder.column.cancel(true);
+            ponders.clear();
+        }
+    }
+
+    public void shutdown() {
+        synchronized (ponders) {
+            stopPondering();
+            pool.shutdownNow();
+        }
+    }
+
+    @Override
+    public int chooseColumn(ArrayList<ArrayList<Integer>> board) {
+        return chooseColumn(Position.fromBoard(board, GameConfig.AI));
+    }
+
+    @Override
+    public int chooseColumn(Position position) {
+        Ponder match = null;
+        synchronized (ponders) {
+            for (Ponder ponder : ponders) {
+                if (match == null && samePosition(ponder.position, position)) match = ponder;
+                else ponder.column.cancel(true);
+            }
+            ponders.clear();
+        }
+
+        int column = GameConfig.INVALID;
+        lastMovePondered = false;
+        if (match != null) {
+            try {
+                column = match.column.get();
+                lastMovePondered = true;
+            } catch (InterruptedException e) {
+                match.column.cancel(true);
+                Thread.currentThread().interrupt(); // The search below sees it and ends at once
+            } catch (ExecutionException | CancellationException e) {
+                // Search it again below
+            }
+        }
+
+        if (lastMovePondered) {
+            ponderHits++;
+            nodeCount = match.nodes;
+            if (hasSearchListeners() && match.stats != null) fireSearchFinished(match.stats);
+        }
+        else {
+            ponderMisses++;
+            Ponder now = new Ponder(position);
+            column = search(now);
+            nodeCount = now.nodes;
+            if (hasSearchListeners() && now.stats != null) fireSearchFinished(now.stats);
+        }
+
+        if (column != GameConfig.INVALID && !Thread.currentThread().isInterrupted()) ponder(position, column);
+        return column;
+    }
+
+    // Start a background search after every reply to our move that does not end the game
+    private void ponder(Position position, int column) {
+        Position afterMove = new Position(position);
+        afterMove.play(column);
+        if (afterMove.isWinAt(column) || afterMove.isFull()) return;
+
+        for (int reply : afterMove.getGeometry().centerOrder()) {
+            if (!afterMove.canPlay(reply)) continue;
+
+            Position afterReply = new Position(afterMove);
+            afterReply.play(reply);
+            if (afterReply.isWinAt(reply) || afterReply.isFull()) continue; // Nothing to answer
+
+            Ponder ponder = new Ponder(afterReply);
+            synchronized (ponders) {
+                if (pool.isShutdown()) return; // Shut down while this move was chosen
+                ponder.column = pool.submit(() -> search(ponder));
+                ponders.add(ponder);
+            }
+        }
+    }
+
+    // Search on an idle engine, made ready for the current game; stats are only gathered while listened to
+    private int search(Ponder ponder) {
+        Engine engine = idleEngines.poll();
+        if (engine == null) engine = new Engine(factory.get());
+        long game = gameNumber;
+        if (engine.gameNumber != game) {
+            engine.ai.newGame();
+            engine.gameNumber = game;
+        }
+        engine.ai.setSeed(random.nextLong());
+
+        SearchListener collector = (ai, stats) -> ponder.stats = stats;
+        boolean collect = hasSearchListeners();
+        if (collect) engine.ai.addSearchListener(collector);
+        try {
+            int column = engine.ai.chooseColumn(ponder.position);
+            ponder.nodes = engine.ai.getNodeCount();
+            return column;
+        } finally {
+            if (collect) engine.ai.removeSearchListener(collector);
+            idleEngines.add(engine);
+        }
+    }
+
+    private static boolean samePosition(Position a, Position b) {
+        return a.getGeometry() == b.getGeometry() && a.getToMove() == b.getToMove()
+                && a.getStones(GameConfig.PLAYER) == b.getStones(GameConfig.PLAYER)
+                && a.getStones(GameConfig.AI) == b.getStones(GameConfig.AI);
+    }
+}
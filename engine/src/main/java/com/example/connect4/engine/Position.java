@@ -0,0 +1,247 @@
+package com.example.connect4.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+// Compact bitboard position: one 64-bit mask per player plus a height counter per column.
+// Bit (column * stride + height) is a cell, height 0 being the bottom of the column; the stride and the
+// win length come from the BoardGeometry, the standard 7x6 connect-four board unless one is given.
+public class Position {
+    private long playerMask;
+    private long aiMask;
+    private final BoardGeometry geometry;
+    private final int width; // Copied from the geometry, read on every move
+    private final int height;
+    private final long[][] zobrist;
+    private final int[] heights;
+    private int moves;
+    private int toMove;
+    private long hash; // Zobrist hash of the stones, updated on every play/undo
+    private long mirrorHash; // Same for the board mirrored across the center column
+
+    public Position() {
+        this(GameConfig.PLAYER);
+    }
+
+    public Position(int firstToMove) {
+        this(BoardGeometry.STANDARD, firstToMove);
+    }
+
+    public Position(BoardGeometry geometry, int firstToMove) {
+        this.geometry = geometry;
+        this.width = geometry.getColumns();
+        this.height = geometry.getRows();
+        this.zobrist = geometry.zobrist;
+        this.heights = new int[width];
+        this.toMove = firstToMove;
+    }
+
+    public Position(Position other) {
+        this(other.geometry, other.toMove);
+        copyFrom(other);
+    }
+
+    // Become a copy of other without allocating; both must be on the same board
+    public void copyFrom(Position other) {
+        if (other.geometry != geometry) throw new IllegalArgumentException("Cannot copy a " + other.geometry
+                + " position onto a " + geometry + " board");
+        this.playerMask = other.playerMask;
+        this.aiMask = other.aiMask;
+        System.arraycopy(other.heights, 0, this.heights, 0, width);
+        this.moves = other.moves;
+        this.toMove = other.toMove;
+        this.hash = other.hash;
+        this.mirrorHash = other.mirrorHash;
+    }
+
+    // Build a position from a GameData style board (row 0 is the top row), connect four on a board of its size
+    public static Position fromBoard(ArrayList<ArrayList<Integer>> board, int toMove) {
+        BoardGeometry geometry = BoardGeometry.of(board.get(0).size(), board.size(), GameConfig.WIN_LENGTH);
+        Position position = new Position(geometry, toMove);
+        for (int column = 0; column < geometry.getColumns(); column++) {
+            for (int row = geometry.getRows() - 1; row >= 0; row--) {
+                int value = board.get(row).get(column);
+                if (value == GameConfig.EMPTY) break;
+                position.play(column, value);
+            }
+        }
+        position.toMove = toMove;
+        return position;
+    }
+
+    public static int opponent(int player) {
+        return GameConfig.PLAYER + GameConfig.AI - player;
+    }
+
+    private int index(int column, int height) {
+        return geometry.index(column, height);
+    }
+
+    private long bit(int column, int height) {
+        return geometry.bit(column, height);
+    }
+
+    // True if the mask contains four aligned stones in any direction on the standard board
+    public static boolean alignment(long mask) {
+        return BoardGeometry.STANDARD.alignment(mask);
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public boolean canPlay(int column) {
+        return heights[column] < height;
+    }
+
+    // Drop a stone for the side to move, O(1)
+    public void play(int column) {
+        play(column, toMove);
+    }
+
+    // Drop a stone for the given player; the other player is to move afterwards
+    public void play(int column, int player) {
+        long move = bit(column, heights[column]);
+        if (player == GameConfig.PLAYER) playerMask |= move;
+        else aiMask |= move;
+        hash ^= zobrist[player - 1][index(column, heights[column])];
+        mirrorHash ^= zobrist[player - 1][index(mirror(column), heights[column])];
+        heights[column]++;
+        moves++;
+        toMove = opponent(player);
+    }
+
+    // Take back the top stone of a column, O(1)
+    public void undo(int column) {
+        heights[column]--;
+        long move = bit(column, heights[column]);
+        toMove = (playerMask & move) != 0 ? GameConfig.PLAYER : GameConfig.AI;
+        hash ^= zobrist[toMove - 1][index(column, heights[column])];
+        mirrorHash ^= zobrist[toMove - 1][index(mirror(column), heights[column])];
+        playerMask &= ~move;
+        aiMask &= ~move;
+        moves--;
+    }
+
+    // True if the side to move wins by dropping in this column; looks at the four lines through the
+    // landing cell only and leaves the position untouched
+    public boolean isWinningMove(int column) {
+        return geometry.winsThrough(getStones(toMove), column, heights[column]);
+    }
+
+    // True if the top stone of the column is part of a winning line, the cheap check after a move there
+    public boolean isWinAt(int column) {
+        int top = heights[column] - 1;
+        if (top < 0) return false;
+        int owner = (playerMask & bit(column, top)) != 0 ? GameConfig.PLAYER : GameConfig.AI;
+        return geometry.winsThrough(getStones(owner), column, top);
+    }
+
+    public boolean hasWon(int player) {
+        return geometry.alignment(getStones(player));
+    }
+
+    // True if the player who just moved completed a winning line; scans the whole board, prefer
+    // isWinAt when the last column is known
+    public boolean lastMoverWon() {
+        return hasWon(opponent(toMove));
+    }
+
+    public boolean isFull() {
+        return moves == width * height;
+    }
+
+    public long getStones(int player) {
+        return player == GameConfig.PLAYER ? playerMask : aiMask;
+    }
+
+    public long getMask() {
+        return playerMask | aiMask;
+    }
+
+    // Unique key for the position seen from the side to move; needs a padded layout (BoardGeometry.isPadded)
+    public long key() {
+        return getStones(toMove) + getMask();
+    }
+
+    // Zobrist hash including the side to move
+    public long getHash() {
+        return toMove == GameConfig.AI ? hash ^ geometry.zobristAiToMove : hash;
+    }
+
+    // Column at the same place on the board mirrored across the center column
+    public int mirror(int column) {
+        return width - 1 - column;
+    }
+
+    // Smaller of the hashes of the position and its mirror image, so both share one table entry.
+    // Moves stored under it must go through canonicalMove.
+    public long getCanonicalHash() {
+        long canonical = Math.min(hash, mirrorHash);
+        return toMove == GameConfig.AI ? canonical ^ geometry.zobristAiToMove : canonical;
+    }
+
+    // True if getCanonicalHash is the hash of the mirror image
+    public boolean isCanonicalMirrored() {
+        return mirrorHash < hash;
+    }
+
+    // Map a column between this position and its canonical orientation; the mapping is its own inverse
+    public int canonicalMove(int column) {
+        return column == GameConfig.INVALID || !isCanonicalMirrored() ? column : mirror(column);
+    }
+
+    public int getToMove() {
+        return toMove;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public int getHeight(int column) {
+        return heights[column];
+    }
+
+    // Row index (GameData orientation) the next stone in this column lands on
+    public int getEmptyRow(int column) {
+        return canPlay(column) ? height - 1 - heights[column] : GameConfig.INVALID;
+    }
+
+    // Cell content in GameData orientation (row 0 is the top row)
+    public int getCell(int row, int column) {
+        long cell = bit(column, height - 1 - row);
+        if ((playerMask & cell) != 0) return GameConfig.PLAYER;
+        if ((aiMask & cell) != 0) return GameConfig.AI;
+        return GameConfig.EMPTY;
+    }
+
+    // Board seen from the side to move: its stones are written as AI, matching the chooseColumn(board) contract
+    public ArrayList<ArrayList<Integer>> toBoard() {
+        ArrayList<ArrayList<Integer>> board = new ArrayList<>(height);
+        for (int row = 0; row < height; row++) {
+            ArrayList<Integer> line = new ArrayList<>(Collections.nCopies(width, GameConfig.EMPTY));
+            for (int column = 0; column < width; column++) {
+                int value = getCell(row, column);
+                if (value == GameConfig.EMPTY) continue;
+                line.set(column, value == toMove ? GameConfig.AI : GameConfig.PLAYER);
+            }
+            board.add(line);
+        }
+        return board;
+    }
+
+    public void clear() {
+        clear(GameConfig.PLAYER);
+    }
+
+    public void clear(int firstToMove) {
+        toMove = firstToMove;
+        playerMask = 0;
+        aiMask = 0;
+        hash = 0;
+        mirrorHash = 0;
+        for (int column = 0; column < width; column++) heights[column] = 0;
+        moves = 0;
+    }
+}
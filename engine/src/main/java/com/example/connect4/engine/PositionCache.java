@@ -0,0 +1,141 @@
+package com.example.connect4.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Search results shared by engines across games and threads, so positions that keep coming back (the
+// opening above all) are not searched from scratch in every game.
+// One TranspositionTable per kind of engine, since scores of different evaluations must not mix. The
+// tables are lock-free like any shared TranspositionTable and are never aged: slot 0 of a bucket keeps
+// the deepest result, slot 1 takes the rest, so each table stays within its size and the deep results
+// of repeated positions survive the churn of the middle game. Entries carry the depth they were searched
+// to and are only used where that is deep enough.
+// Zobrist keys are fixed, so a snapshot written by save is still valid in the next run.
+// shared() is configured by system properties and is off unless a size is given:
+//   -Dconnect4.cache.megabytes=<size of each table>
+//   -Dconnect4.cache.file=<snapshot loaded on first use and written when the JVM shuts down>
+public class PositionCache {
+    public static final String MEGABYTES_PROPERTY = "connect4.cache.megabytes";
+    public static final String FILE_PROPERTY = "connect4.cache.file";
+    public static final int MAGIC = 0x43345043; // "C4PC"
+    public static final int VERSION = 1;
+
+    private final int megabytes;
+    private final Map<String, TranspositionTable> tables = new ConcurrentHashMap<>();
+
+    // Created on first use, null when the properties leave it off
+    private static class SharedHolder {
+        static final PositionCache SHARED = createShared();
+    }
+
+    public PositionCache(int megabytes) {
+        this.megabytes = megabytes;
+    }
+
+    // The process-wide cache, or null if connect4.cache.megabytes is not set
+    public static PositionCache shared() {
+        return SharedHolder.SHARED;
+    }
+
+    private static PositionCache createShared() {
+        int megabytes = Integer.getInteger(MEGABYTES_PROPERTY, 0);
+        if (megabytes <= 0) return null;
+        PositionCache cache = new PositionCache(megabytes);
+
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file != null) {
+            Path path = Paths.get(file);
+            if (Files.exists(path)) {
+                try {
+                    cache.load(path);
+                } catch (IOException e) {
+                    e.printStackTrace(); // Start cold, the snapshot is rewritten at shutdown
+                }
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    cache.save(path);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }, "connect4-cache-snapshot"));
+        }
+        return cache;
+    }
+
+    // Table of one kind of engine, created empty on first use
+    public TranspositionTable table(String kind) {
+        return tables.computeIfAbsent(kind, name -> new TranspositionTable(megabytes));
+    }
+
+    // Number of entries held by all tables
+    public long size() {
+        long size = 0;
+        for (TranspositionTable table : tables.values()) {
+            for (int slot = 0; slot < table.capacity(); slot++) {
+                if (table.entryAt(slot) != 0) size++;
+            }
+        }
+        return size;
+    }
+
+    // Write every entry to a file, replacing it only once the snapshot is complete.
+    // Safe while engines search: an entry changed during the copy is written whole or under a key no
+    // position has.
+    // Layout (big-endian): int magic, byte version, int table count, then per table its kind (UTF) and
+    // pairs of long hash and long entry, ended by a pair of zeros.
+    public void save(Path path) throws IOException {
+        Path partial = path.resolveSibling(path.getFileName() + ".partial");
+        try (OutputStream output = Files.newOutputStream(partial);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            Map<String, TranspositionTable> snapshot = Map.copyOf(tables);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, TranspositionTable> kind : snapshot.entrySet()) {
+                TranspositionTable table = kind.getValue();
+                out.writeUTF(kind.getKey());
+                for (int slot = 0; slot < table.capacity(); slot++) {
+                    long entry = table.entryAt(slot);
+                    long hash = entry ^ table.keyAt(slot);
+                    if (entry == 0 || hash == 0) continue;
+                    out.writeLong(hash);
+                    out.writeLong(entry);
+                }
+                out.writeLong(0);
+                out.writeLong(0);
+            }
+        }
+        Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Add the entries of a snapshot; the tables may have another size than the ones that wrote it
+    public void load(Path path) throws IOException {
+        try (InputStream input = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(input, 1 << 16))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a position cache snapshot");
+            if (in.readByte() != VERSION) throw new IOException("Unsupported position cache snapshot version");
+            int kinds = in.readInt();
+            for (int k = 0; k < kinds; k++) {
+                TranspositionTable table = table(in.readUTF());
+                while (true) {
+                    long hash = in.readLong();
+                    long entry = in.readLong();
+                    if (entry == 0) break;
+                    table.restore(hash, entry);
+                }
+            }
+        }
+    }
+}
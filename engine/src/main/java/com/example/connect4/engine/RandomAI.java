@@ -0,0 +1,23 @@
+package com.example.connect4.engine;
+
+import java.util.ArrayList;
+
+public class RandomAI extends AI {
+    private final int[] playable = new int[BoardGeometry.MAX_COLUMNS];
+
+    @Override
+    public int chooseColumn(ArrayList<ArrayList<Integer>> board) {
+        return chooseColumn(Position.fromBoard(board, GameConfig.AI));
+    }
+
+    // Uniform over the columns that are not full
+    @Override
+    public int chooseColumn(Position position) {
+        int count = 0;
+        for (int column = 0; column < position.getGeometry().getColumns(); column++) {
+            if (position.canPlay(column)) playable[count++] = column;
+        }
+        if (count == 0) return GameConfig.INVALID;
+        return playable[random.nextInt(count)];
+    }
+}
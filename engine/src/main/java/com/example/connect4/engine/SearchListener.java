@@ -0,0 +1,8 @@
+package com.example.connect4.engine;
+
+// Told about every search an AI finishes, on the thread that ran it.
+// Engines only gather the principal variation and build SearchStats when a listener is registered,
+// so an AI without listeners pays nothing but a few counters.
+public interface SearchListener {
+    void searchFinished(AI ai, SearchStats stats);
+}
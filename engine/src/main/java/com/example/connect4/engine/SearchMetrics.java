@@ -0,0 +1,96 @@
+package com.example.connect4.engine;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Totals of every search per engine class, for any number of AIs on any threads.
+// Register one instance on every AI; serve() exposes the totals in the Prometheus text format on
+// http://localhost:<port>/metrics.
+public class SearchMetrics implements SearchListener {
+    // Counters of one engine class; adders so searching threads never contend on a single field
+    private static class Totals {
+        final LongAdder searches = new LongAdder();
+        final LongAdder nodes = new LongAdder();
+        final LongAdder tableProbes = new LongAdder();
+        final LongAdder tableHits = new LongAdder();
+        final LongAdder cutoffs = new LongAdder();
+        final LongAdder elapsedNanos = new LongAdder();
+        final LongAccumulator maxElapsedNanos = new LongAccumulator(Math::max, 0);
+        final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    }
+
+    private final Map<String, Totals> totals = new ConcurrentHashMap<>();
+
+    @Override
+    public void searchFinished(AI ai, SearchStats stats) {
+        Totals engine = totals.computeIfAbsent(ai.getClass().getSimpleName(), name -> new Totals());
+        engine.searches.increment();
+        engine.nodes.add(stats.getNodes());
+        engine.tableProbes.add(stats.getTableProbes());
+        engine.tableHits.add(stats.getTableHits());
+        engine.cutoffs.add(stats.getCutoffs());
+        engine.elapsedNanos.add(stats.getElapsedNanos());
+        engine.maxElapsedNanos.accumulate(stats.getElapsedNanos());
+        engine.maxDepth.accumulate(stats.getMaxDepth());
+    }
+
+    // All totals in the Prometheus text exposition format
+    public String toPrometheusText() {
+        StringBuilder text = new StringBuilder();
+        appendCounter(text, "connect4_searches_total", "Searches finished", engine -> engine.searches.sum());
+        appendCounter(text, "connect4_search_nodes_total", "Nodes visited", engine -> engine.nodes.sum());
+        appendCounter(text, "connect4_search_table_probes_total", "Transposition table probes", engine -> engine.tableProbes.sum());
+        appendCounter(text, "connect4_search_table_hits_total", "Transposition table hits", engine -> engine.tableHits.sum());
+        appendCounter(text, "connect4_search_cutoffs_total", "Beta cutoffs", engine -> engine.cutoffs.sum());
+        appendSeconds(text, "connect4_search_seconds_total", "counter", "Time spent searching", engine -> engine.elapsedNanos.sum());
+        appendSeconds(text, "connect4_search_seconds_max", "gauge", "Longest search", engine -> engine.maxElapsedNanos.get());
+        text.append("# HELP connect4_search_depth_max Deepest ply visited\n# TYPE connect4_search_depth_max gauge\n");
+        totals.forEach((name, engine) -> text.append("connect4_search_depth_max{engine=\"").append(name).append("\"} ")
+                .append(engine.maxDepth.get()).append('\n'));
+        return text.toString();
+    }
+
+    private interface Value {
+        long of(Totals engine);
+    }
+
+    private void appendCounter(StringBuilder text, String metric, String help, Value value) {
+        text.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(metric).append(" counter\n");
+        totals.forEach((name, engine) -> text.append(metric).append("{engine=\"").append(name).append("\"} ")
+                .append(value.of(engine)).append('\n'));
+    }
+
+    private void appendSeconds(StringBuilder text, String metric, String type, String help, Value nanos) {
+        text.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+        totals.forEach((name, engine) -> text.append(metric).append("{engine=\"").append(name).append("\"} ")
+                .append(String.format(Locale.ROOT, "%.6f", nanos.of(engine) / 1e9)).append('\n'));
+    }
+
+    // Serve the totals on the loopback interface; stop the returned server to close the endpoint
+    public HttpServer serve(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = toPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.setExecutor(null); // Scrapes are rare, the server's own thread answers them
+        server.start();
+        return server;
+    }
+}
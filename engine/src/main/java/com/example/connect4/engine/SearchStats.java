@@ -0,0 +1,103 @@
+package com.example.connect4.engine;
+
+import java.util.Arrays;
+
+// What one search did: work counters, timing and the line it expects to be played.
+// A new instance per search, so listeners may keep it.
+public class SearchStats {
+    Position position;
+    int column = GameConfig.INVALID;
+    int score;
+    long nodes;
+    long tableProbes;
+    long tableHits;
+    long cutoffs;
+    int completedDepth;
+    int maxDepth;
+    long elapsedNanos;
+    int[] principalVariation = new int[0];
+
+    // Position searched, with the searching side to move
+    public Position getPosition() {
+        return position;
+    }
+
+    // Column chosen, INVALID if there was none
+    public int getColumn() {
+        return column;
+    }
+
+    // Score of the chosen move for the side to move, on the engine's own scale
+    public int getScore() {
+        return score;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    // Probes that found an entry for the position
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    // Moves that failed high and pruned their siblings
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    // Deepest full-width iteration finished
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    // Deepest ply any node was visited at
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Expected line of play starting with the chosen column; read back from the transposition table
+    public int[] getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+    }
+
+    // Follow the best moves stored in the table from the position after the first move
+    static int[] principalVariation(TranspositionTable table, Position root, int firstMove, int maxLength) {
+        if (firstMove == GameConfig.INVALID || !root.canPlay(firstMove)) return new int[0];
+        int[] line = new int[maxLength];
+        Position position = new Position(root);
+        int length = 0;
+        int column = firstMove;
+        while (true) {
+            line[length++] = column;
+            position.play(column);
+            if (length == maxLength || position.isWinAt(column) || position.isFull()) break;
+
+            long entry = table.probe(position.getCanonicalHash());
+            column = entry == 0 ? GameConfig.INVALID : position.canonicalMove(TranspositionTable.move(entry));
+            if (column == GameConfig.INVALID || !position.canPlay(column)) break;
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder pv = new StringBuilder();
+        for (int move : principalVariation) pv.append(move);
+        return "column " + column + ", score " + score + ", " + nodes + " nodes, " + tableHits + "/" + tableProbes
+                + " table hits, " + cutoffs + " cutoffs, depth " + completedDepth + "/" + maxDepth + ", "
+                + elapsedNanos / 1000 + " us, pv " + pv;
+    }
+}
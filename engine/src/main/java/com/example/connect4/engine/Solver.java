@@ -0,0 +1,278 @@
+package com.example.connect4.engine;
+
+// Exact Connect Four solver: null-window alpha-beta over the bitboard, never exploring moves that lose
+// at once, ordered by how many winning threats they create.
+// Scores follow the usual convention: positive if the side to move wins, (cells left + 1) / 2 for a win
+// on its next move and smaller the later the win comes; 0 is a draw.
+// Solves the standard board only (BoardGeometry.STANDARD): the layout and threat masks are compiled in.
+public class Solver {
+    private static final int WIDTH = GameConfig.COLUMNS;
+    private static final int HEIGHT = GameConfig.ROWS;
+    private static final int STRIDE = HEIGHT + 1;
+    private static final int CELLS = WIDTH * HEIGHT;
+    private static final long BOTTOM_MASK = bottomMask();
+    private static final long BOARD_MASK = BOTTOM_MASK * ((1L << HEIGHT) - 1);
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L; // Odd, so key -> hash is a bijection
+
+    static final int DEFAULT_TABLE_MEGABYTES = 64;
+    private static final int CLOCK_CHECK_MASK = 4095; // Read the clock every 4096 nodes
+
+    private final TranspositionTable table;
+    private final int[] columnOrder = new int[WIDTH];
+    private final long[][] sortedMoves = new long[CELLS + 1][WIDTH]; // Per-depth buffers for move ordering
+    private final int[][] sortedScores = new int[CELLS + 1][WIDTH];
+    private OpeningBook book;
+    private long nodeCount;
+    private long deadline = Long.MAX_VALUE;
+    private boolean aborted;
+
+    public Solver() {
+        this(DEFAULT_TABLE_MEGABYTES);
+    }
+
+    public Solver(int tableMegabytes) {
+        this(new TranspositionTable(tableMegabytes));
+    }
+
+    // Solver searching into a table shared with solvers on other threads; scores are exact for a position
+    // whoever stored them
+    Solver(TranspositionTable table) {
+        this.table = table;
+        for (int i = 0; i < WIDTH; i++) {
+            columnOrder[i] = WIDTH / 2 + (1 - 2 * (i % 2)) * (i + 1) / 2;
+        }
+    }
+
+    // Positions found in the book are not searched
+    public void setBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    // Give up solving at this System.nanoTime(); Long.MAX_VALUE never gives up
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    // True if the last solve ran out of time, its score is then meaningless
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    // Also clears the results of solvers sharing the table
+    public void reset() {
+        table.clear();
+        nodeCount = 0;
+    }
+
+    private static long bottomMask() {
+        long mask = 0;
+        for (int column = 0; column < WIDTH; column++) mask |= 1L << (column * STRIDE);
+        return mask;
+    }
+
+    static long columnMask(int column) {
+        return ((1L << HEIGHT) - 1) << (column * STRIDE);
+    }
+
+    // Key unique to the stones of the side to move and the occupied cells
+    public static long key(long current, long mask) {
+        return current + mask;
+    }
+
+    public static long key(Position position) {
+        checkStandard(position);
+        return key(position.getStones(position.getToMove()), position.getMask());
+    }
+
+    private static void checkStandard(Position position) {
+        if (!position.getGeometry().isStandard()) {
+            throw new IllegalArgumentException("The solver only plays on the standard board, not " + position.getGeometry());
+        }
+    }
+
+    // Bitboard (stones, mask or key) mirrored across the center column
+    static long mirror(long bitboard) {
+        long mirrored = 0;
+        for (int column = 0; column < WIDTH; column++) {
+            long bits = (bitboard >>> (column * STRIDE)) & ((1L << STRIDE) - 1);
+            mirrored |= bits << ((WIDTH - 1 - column) * STRIDE);
+        }
+        return mirrored;
+    }
+
+    // Smaller of the keys of a position and its mirror image; the opening book and the table use it,
+    // so the two orientations share one entry. Scores do not depend on the orientation.
+    public static long canonicalKey(long key) {
+        return Math.min(key, mirror(key));
+    }
+
+    // Occupied cells of a key; every column of the key holds mask + current, which fits in its STRIDE bits
+    static long maskFromKey(long key) {
+        long mask = 0;
+        for (int column = 0; column < WIDTH; column++) {
+            int value = (int) (key >>> (column * STRIDE)) & ((1 << STRIDE) - 1);
+            int height = 31 - Integer.numberOfLeadingZeros(value + 1);
+            mask |= ((1L << height) - 1) << (column * STRIDE);
+        }
+        return mask;
+    }
+
+    // Empty cells that would complete four for the stones in position
+    private static long computeWinningPosition(long position, long mask) {
+        // Vertical
+        long r = (position << 1) & (position << 2) & (position << 3);
+
+        // Horizontal and both diagonals
+        for (int shift = STRIDE - 1; shift <= STRIDE + 1; shift++) {
+            long p = (position << shift) & (position << 2 * shift);
+            r |= p & (position << 3 * shift);
+            r |= p & (position >>> shift);
+            p = (position >>> shift) & (position >>> 2 * shift);
+            r |= p & (position << shift);
+            r |= p & (position >>> 3 * shift);
+        }
+
+        return r & (BOARD_MASK ^ mask);
+    }
+
+    static long possible(long mask) {
+        return (mask + BOTTOM_MASK) & BOARD_MASK;
+    }
+
+    static boolean canWinNext(long current, long mask) {
+        return (computeWinningPosition(current, mask) & possible(mask)) != 0;
+    }
+
+    // Playable cells that do not hand the opponent an immediate win
+    static long possibleNonLosingMoves(long current, long mask) {
+        long possibleMask = possible(mask);
+        long opponentWin = computeWinningPosition(current ^ mask, mask);
+        long forcedMoves = possibleMask & opponentWin;
+        if (forcedMoves != 0) {
+            if ((forcedMoves & (forcedMoves - 1)) != 0) return 0; // Two threats at once: lost
+            possibleMask = forcedMoves;
+        }
+        return possibleMask & ~(opponentWin >>> 1); // Never play right below an opponent threat
+    }
+
+    private int negamax(long current, long mask, int moves, int alpha, int beta) {
+        if ((++nodeCount & CLOCK_CHECK_MASK) == 0
+                && (System.nanoTime() > deadline || Thread.currentThread().isInterrupted())) {
+            aborted = true;
+        }
+        if (aborted) return 0;
+
+        long next = possibleNonLosingMoves(current, mask);
+        if (next == 0) return -(CELLS - moves) / 2; // Every move loses on the opponent's reply
+        if (moves >= CELLS - 2) return 0; // Nobody can win any more
+
+        int min = -(CELLS - 2 - moves) / 2; // The opponent cannot win on its next move
+        if (alpha < min) {
+            alpha = min;
+            if (alpha >= beta) return alpha;
+        }
+        int max = (CELLS - 1 - moves) / 2; // We cannot win on this move
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) return beta;
+        }
+
+        long key = canonicalKey(key(current, mask));
+        if (book != null && moves <= book.getMaxPly()) {
+            int score = book.getScore(key);
+            if (score != OpeningBook.UNKNOWN) return score;
+        }
+
+        long hash = key * HASH_MULTIPLIER;
+        long entry = table.probe(hash);
+        if (entry != 0) {
+            int score = TranspositionTable.score(entry);
+            if (TranspositionTable.bound(entry) == TranspositionTable.UPPER) {
+                if (beta > score) {
+                    beta = score;
+                    if (alpha >= beta) return beta;
+                }
+            } else if (alpha < score) {
+                alpha = score;
+                if (alpha >= beta) return alpha;
+            }
+        }
+
+        int count = sortMoves(current, mask, moves, next);
+        for (int i = 0; i < count; i++) {
+            long move = sortedMoves[moves][i];
+            long nextMask = mask | move;
+            int score = -negamax(current ^ mask, nextMask, moves + 1, -beta, -alpha);
+            if (aborted) return 0; // Unfinished results must not reach the table
+            if (score >= beta) {
+                table.store(hash, 0, TranspositionTable.LOWER, score, GameConfig.INVALID);
+                return score;
+            }
+            if (score > alpha) alpha = score;
+        }
+
+        table.store(hash, 0, TranspositionTable.UPPER, alpha, GameConfig.INVALID);
+        return alpha;
+    }
+
+    // Order the candidate moves by the number of threats they create, center first on ties
+    private int sortMoves(long current, long mask, int moves, long candidates) {
+        long[] sorted = sortedMoves[moves];
+        int[] scores = sortedScores[moves];
+        int count = 0;
+        for (int column : columnOrder) {
+            long move = candidates & columnMask(column);
+            if (move == 0) continue;
+
+            int score = Long.bitCount(computeWinningPosition(current | move, mask));
+            int i = count++;
+            while (i > 0 && scores[i - 1] < score) {
+                sorted[i] = sorted[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            sorted[i] = move;
+            scores[i] = score;
+        }
+        return count;
+    }
+
+    // Exact score of the position for the side to move; weak only tells win (1), draw (0) or loss (-1)
+    public int solve(Position position, boolean weak) {
+        checkStandard(position);
+        return solve(position.getStones(position.getToMove()), position.getMask(), position.getMoves(), weak);
+    }
+
+    // Same as solve(Position, boolean) on raw bitboards: stones of the side to move and occupied cells
+    public int solve(long current, long mask, int moves, boolean weak) {
+        aborted = false;
+
+        if (canWinNext(current, mask)) {
+            int score = (CELLS + 1 - moves) / 2;
+            return weak ? 1 : score;
+        }
+
+        int min = weak ? -1 : -(CELLS - moves) / 2;
+        int max = weak ? 1 : (CELLS + 1 - moves) / 2;
+        while (min < max) {
+            // Null-window probes, biased towards 0 where most positions end up
+            int med = min + (max - min) / 2;
+            if (med <= 0 && min / 2 < med) med = min / 2;
+            else if (med >= 0 && max / 2 > med) med = max / 2;
+
+            int r = negamax(current, mask, moves, med, med + 1);
+            if (aborted) return 0;
+            if (r <= med) max = r;
+            else min = r;
+        }
+        return weak ? Integer.signum(min) : min;
+    }
+
+    public int solve(Position position) {
+        return solve(position, false);
+    }
+}
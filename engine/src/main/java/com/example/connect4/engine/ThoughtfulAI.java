@@ -0,0 +1,156 @@
+package com.example.connect4.engine;
+
+import java.util.ArrayList;
+
+public class ThoughtfulAI extends AI {
+    private class Result {
+        public int score;
+        public int nextMove;
+
+        public Result(int score, int nextMove) {
+            this.score = score;
+            this.nextMove = nextMove;
+        }
+    }
+
+    private static final int WINNING_SCORE = Evaluator.WINNING_SCORE;
+    private static final int MAX_DEPTH = 7;
+    private static final int DEFAULT_TABLE_MEGABYTES = 4;
+    static final String CACHE_KIND = "thoughtful"; // Table of a PositionCache
+
+    private final TranspositionTable memoizeTable;
+    private final boolean sharedTable; // Results of other engines and games, never cleared or aged here
+    private final Evaluator evaluator = new Evaluator();
+    private long nodeCount;
+    private long tableProbes;
+    private long tableHits;
+    private int maxPly; // Deepest ply visited by the last search
+
+    // Memoizes into the process-wide PositionCache when it is on
+    public ThoughtfulAI() {
+        this(PositionCache.shared());
+    }
+
+    // Memoize into a cache shared with other engines and games; null keeps a table of its own
+    public ThoughtfulAI(PositionCache cache) {
+        this(cache != null ? cache.table(CACHE_KIND) : new TranspositionTable(DEFAULT_TABLE_MEGABYTES), cache != null);
+    }
+
+    public ThoughtfulAI(int tableMegabytes) {
+        this(new TranspositionTable(tableMegabytes), false);
+    }
+
+    private ThoughtfulAI(TranspositionTable memoizeTable, boolean sharedTable) {
+        this.memoizeTable = memoizeTable;
+        this.sharedTable = sharedTable;
+    }
+
+    // Minimax Algorithm to choose the column with best moves in next 7 moves
+    private Result dfs(int depth, Position position) {
+        nodeCount++;
+        if (depth > maxPly) maxPly = depth;
+        // Winning moves are scored below without being played, so the last move did not win
+        int value = evaluator.heuristic(position);
+        if (depth == MAX_DEPTH || position.isFull()) {
+            return new Result(value, 0);
+        }
+
+        // Reuse a stored result only if it was searched at least as deep as needed here
+        long hash = position.getCanonicalHash(); // A position and its mirror image share one entry
+        long entry = memoizeTable.probe(hash);
+        tableProbes++;
+        if (entry != 0) tableHits++;
+        if (entry != 0 && TranspositionTable.depth(entry) >= MAX_DEPTH - depth) {
+            int score = TranspositionTable.scoreFromTable(TranspositionTable.score(entry), depth);
+            return new Result(score, position.canonicalMove(TranspositionTable.move(entry)));
+        }
+
+        Result bestResult = new Result(-WINNING_SCORE * 2, 0);
+
+        int columns = position.getGeometry().getColumns();
+        int[] columnResult = new int[columns];
+        for (int j = 0; j < columns; j++) {
+            if (!position.canPlay(j)) {
+                columnResult[j] = Integer.MIN_VALUE; // Never equal to a score, INVALID (-1) could be one
+                continue;
+            }
+
+            int score;
+            if (position.isWinningMove(j)) {
+                score = WINNING_SCORE - (depth + 1); // What the next level would return, without visiting it
+            }
+            else {
+                // Play and take back the move instead of copying the board
+                position.play(j);
+                score = -dfs(depth + 1, position).score;
+                position.undo(j);
+            }
+
+            if (score > bestResult.score) {
+                bestResult.score = score;
+            }
+            columnResult[j] = score;
+        }
+
+        // Create an ArrayList store all columns that have same best Result
+        ArrayList<Integer> bestColumns = new ArrayList<>();
+        for (int j = 0; j < columns; j++) {
+            if (columnResult[j] == bestResult.score) {
+                bestColumns.add(j);
+            }
+        }
+
+        // Randomly choose the column with best Result
+        if (!bestColumns.isEmpty()) {
+            int column = random.nextInt(bestColumns.size());
+            bestResult.nextMove = bestColumns.get(column);
+        }
+
+        memoizeTable.store(hash, MAX_DEPTH - depth, TranspositionTable.EXACT,
+                TranspositionTable.scoreToTable(bestResult.score, depth), position.canonicalMove(bestResult.nextMove));
+        return bestResult;
+    }
+
+    // Number of nodes visited by the last search
+    @Override
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public void newGame() {
+        if (!sharedTable) memoizeTable.clear();
+    }
+
+    @Override
+    public int chooseColumn(ArrayList<ArrayList<Integer>> board) {
+        return chooseColumn(Position.fromBoard(board, GameConfig.AI));
+    }
+
+    @Override
+    public int chooseColumn(Position position) {
+        long start = System.nanoTime();
+        if (!sharedTable) memoizeTable.newSearch();
+        nodeCount = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        maxPly = 0;
+        Result bestResult = dfs(0, new Position(position));
+
+        if (hasSearchListeners()) {
+            SearchStats stats = new SearchStats();
+            stats.position = new Position(position);
+            stats.column = bestResult.nextMove;
+            stats.score = bestResult.score;
+            stats.nodes = nodeCount;
+            stats.tableProbes = tableProbes;
+            stats.tableHits = tableHits;
+            stats.completedDepth = MAX_DEPTH;
+            stats.maxDepth = maxPly;
+            stats.elapsedNanos = System.nanoTime() - start;
+            stats.principalVariation = SearchStats.principalVariation(memoizeTable, position, bestResult.nextMove, MAX_DEPTH);
+            fireSearchFinished(stats);
+        }
+        return bestResult.nextMove;
+    }
+}
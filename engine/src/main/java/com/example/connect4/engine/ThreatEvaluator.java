@@ -0,0 +1,173 @@
+package com.example.connect4.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Incremental evaluation over the winning windows of the board, the 69 four-cell windows on the standard board.
+// Each window counts the stones of both players; a window holding only one player's stones is a threat
+// worth TWO_IN_A_ROW_SCORE or THREE_IN_A_ROW_SCORE to that player, when it lacks two or one stone of the
+// win length. Totals are updated on every play/undo, so evaluating a leaf is O(1) and nothing is allocated
+// during the search.
+public class ThreatEvaluator {
+    private static final int[][] DIRECTIONS = {{1, 0}, {0, 1}, {1, 1}, {1, -1}}; // (column, height) steps
+    private static final ConcurrentHashMap<BoardGeometry, Windows> WINDOWS = new ConcurrentHashMap<>();
+
+    // Windows through each cell of one board, built once per geometry and shared
+    private static class Windows {
+        final int[][] cellWindows;
+        final int count;
+
+        Windows(BoardGeometry geometry) {
+            cellWindows = buildCellWindows(geometry);
+            int windows = 0;
+            for (int[] windowsOfCell : cellWindows) windows += windowsOfCell.length;
+            count = windows / geometry.getWinLength();
+        }
+    }
+
+    private int threeInARowScore;
+    private int twoInARowScore;
+    private BoardGeometry geometry;
+    private int rows;
+    private int[][] cellWindows;
+    private int[] windowValues; // Score of a window by number of stones
+    private final int[][] counts = new int[2][]; // Stones per window, indexed by player - 1
+    private final int[] scores = new int[2]; // Sum of window values per player
+
+    public ThreatEvaluator() {
+        this(Evaluator.THREE_IN_A_ROW_SCORE, Evaluator.TWO_IN_A_ROW_SCORE);
+    }
+
+    public ThreatEvaluator(int threeInARowScore, int twoInARowScore) {
+        setWeights(threeInARowScore, twoInARowScore);
+    }
+
+    // Takes effect from the next reset()
+    public void setWeights(int threeInARowScore, int twoInARowScore) {
+        this.threeInARowScore = threeInARowScore;
+        this.twoInARowScore = twoInARowScore;
+    }
+
+    private int cellIndex(int column, int height) {
+        return column * rows + height;
+    }
+
+    private static int[][] buildCellWindows(BoardGeometry geometry) {
+        int windowLength = geometry.getWinLength();
+        int rows = geometry.getRows();
+        int[][] windowsPerCell = new int[geometry.getCells()][];
+        int[] sizes = new int[windowsPerCell.length];
+        int[][] buffer = new int[windowsPerCell.length][DIRECTIONS.length * windowLength];
+
+        int window = 0;
+        for (int[] direction : DIRECTIONS) {
+            for (int column = 0; column < geometry.getColumns(); column++) {
+                for (int height = 0; height < rows; height++) {
+                    int endColumn = column + direction[0] * (windowLength - 1);
+                    int endHeight = height + direction[1] * (windowLength - 1);
+                    if (!geometry.onBoard(endColumn, endHeight)) continue;
+
+                    for (int i = 0; i < windowLength; i++) {
+                        int cell = (column + direction[0] * i) * rows + height + direction[1] * i;
+                        buffer[cell][sizes[cell]++] = window;
+                    }
+                    window++;
+                }
+            }
+        }
+
+        for (int cell = 0; cell < windowsPerCell.length; cell++) {
+            windowsPerCell[cell] = Arrays.copyOf(buffer[cell], sizes[cell]);
+        }
+        return windowsPerCell;
+    }
+
+    // Rebuild all counts from a position, done once per search
+    public void reset(Position position) {
+        if (position.getGeometry() != geometry) {
+            geometry = position.getGeometry();
+            rows = geometry.getRows();
+            Windows windows = WINDOWS.computeIfAbsent(geometry, Windows::new);
+            cellWindows = windows.cellWindows;
+            counts[0] = new int[windows.count];
+            counts[1] = new int[windows.count];
+            windowValues = new int[geometry.getWinLength() + 1];
+        }
+        int windowLength = geometry.getWinLength();
+        windowValues[windowLength - 1] = threeInARowScore;
+        if (windowLength > 2) windowValues[windowLength - 2] = twoInARowScore;
+
+        for (int[] playerCounts : counts) Arrays.fill(playerCounts, 0);
+        scores[0] = 0;
+        scores[1] = 0;
+
+        for (int column = 0; column < geometry.getColumns(); column++) {
+            for (int height = 0; height < position.getHeight(column); height++) {
+                int player = position.getCell(rows - 1 - height, column);
+                add(cellIndex(column, height), player);
+            }
+        }
+    }
+
+    // Call right before position.play(column) for the side to move
+    public void play(Position position, int column) {
+        add(cellIndex(column, position.getHeight(column)), position.getToMove());
+    }
+
+    // Call right after position.undo(column); the side to move is the owner of the removed stone
+    public void undo(Position position, int column) {
+        remove(cellIndex(column, position.getHeight(column)), position.getToMove());
+    }
+
+    private void add(int cell, int player) {
+        int[] own = counts[player - 1];
+        int[] other = counts[2 - player];
+        for (int window : cellWindows[cell]) {
+            int mine = own[window];
+            int theirs = other[window];
+            if (theirs == 0) scores[player - 1] += windowValues[mine + 1] - windowValues[mine];
+            if (mine == 0) scores[2 - player] -= windowValues[theirs]; // Their threat is blocked
+            own[window] = mine + 1;
+        }
+    }
+
+    private void remove(int cell, int player) {
+        int[] own = counts[player - 1];
+        int[] other = counts[2 - player];
+        for (int window : cellWindows[cell]) {
+            int mine = own[window] - 1;
+            int theirs = other[window];
+            if (theirs == 0) scores[player - 1] -= windowValues[mine + 1] - windowValues[mine];
+            if (mine == 0) scores[2 - player] += windowValues[theirs]; // Their threat is open again
+            own[window] = mine;
+        }
+    }
+
+    // Sum of the values of the player's open windows
+    int getScore(int player) {
+        return scores[player - 1];
+    }
+
+    // Stones of the player in every window; owned by the evaluator, do not modify
+    int[] getWindowCounts(int player) {
+        return counts[player - 1];
+    }
+
+    // Score of the position for the side to move, same contract as Evaluator.evaluate
+    public int evaluate(Position position) {
+        // Losing state: the opponent just completed a line
+        if (position.lastMoverWon()) return -Evaluator.WINNING_SCORE;
+
+        return heuristic(position);
+    }
+
+    // Same as evaluate for a position whose last move is known not to have won, as in a search that tests
+    // every move with Position.isWinningMove before playing it; skips the win check
+    public int heuristic(Position position) {
+        // Draw state: 0
+        if (position.isFull()) return 0;
+
+        int player = position.getToMove();
+        return scores[player - 1] - scores[2 - player];
+    }
+}
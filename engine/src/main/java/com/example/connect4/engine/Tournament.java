@@ -0,0 +1,204 @@
+package com.example.connect4.engine;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Plays many games between two AIs on every core and reports the results from the first AI's side.
+// The AIs alternate who moves first. Each game is seeded from the base seed and its number, and engines
+// forget earlier games, so a run is reproducible with any thread count. Engines whose moves depend on
+// timing (ParallelAI, PerfectAI falling back to its time-limited search, PonderingAI) are the exception,
+// and so are engines sharing results across games through PositionCache when it is turned on.
+// Usage: Tournament <first AI> <second AI> <games> [threads] [seed] [random opening moves] [board]
+//   AI: random, thoughtful, alphabeta[:depth], parallel[:depth], perfect, a difficulty level (beginner,
+//       easy, medium, hard, expert), or ponder:<AI> to think on the opponent's time with one extra thread
+//   board: COLUMNSxROWS[xWIN], 7x6 connect four by default
+//   e.g. Tournament alphabeta:7 thoughtful 10000 8 42 2
+//        Tournament alphabeta:7 alphabeta:5 1000 8 42 0 9x7x5
+public class Tournament {
+    private static final long PROGRESS_INTERVAL = 10000;
+
+    // Totals of a run; index 0 is the first AI, 1 the second
+    public static class Result {
+        public long wins;
+        public long draws;
+        public long losses;
+        public final long[] moves = new long[2];
+        public final long[] nanos = new long[2];
+        public final long[] nodes = new long[2];
+
+        public long games() {
+            return wins + draws + losses;
+        }
+
+        void add(Result other) {
+            wins += other.wins;
+            draws += other.draws;
+            losses += other.losses;
+            for (int i = 0; i < 2; i++) {
+                moves[i] += other.moves[i];
+                nanos[i] += other.nanos[i];
+                nodes[i] += other.nodes[i];
+            }
+        }
+
+        public double averageMillisPerMove(int engine) {
+            return moves[engine] == 0 ? 0 : nanos[engine] / 1e6 / moves[engine];
+        }
+
+        public double averageNodesPerMove(int engine) {
+            return moves[engine] == 0 ? 0 : (double) nodes[engine] / moves[engine];
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 3 || args.length > 7) {
+            System.err.println("Usage: Tournament <first AI> <second AI> <games> [threads] [seed] [random opening moves] [board]");
+            System.err.println("  AI: random, thoughtful, alphabeta[:depth], parallel[:depth], perfect");
+            System.err.println("  board: COLUMNSxROWS[xWIN], e.g. 8x7 or 9x7x5");
+            System.exit(1);
+        }
+        Supplier<AI> first = engine(args[0]);
+        Supplier<AI> second = engine(args[1]);
+        long games = Long.parseLong(args[2]);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        int openingMoves = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+        BoardGeometry geometry = args.length > 6 ? BoardGeometry.parse(args[6]) : BoardGeometry.STANDARD;
+
+        long start = System.nanoTime();
+        Result result = run(first, second, games, threads, seed, openingMoves, geometry);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf(Locale.ROOT, "%s vs %s on %s connect %d, %d games, seed %d, %d random opening moves, %.1f s (%.0f games/s)%n",
+                args[0], args[1], geometry, geometry.getWinLength(), result.games(), seed, openingMoves, seconds,
+                result.games() / seconds);
+        System.out.printf(Locale.ROOT, "%s: %d wins (%.1f%%), %d draws (%.1f%%), %d losses (%.1f%%)%n", args[0],
+                result.wins, 100.0 * result.wins / result.games(),
+                result.draws, 100.0 * result.draws / result.games(),
+                result.losses, 100.0 * result.losses / result.games());
+        for (int i = 0; i < 2; i++) {
+            System.out.printf(Locale.ROOT, "%s: %.3f ms/move, %.0f nodes/move%n",
+                    args[i], result.averageMillisPerMove(i), result.averageNodesPerMove(i));
+        }
+    }
+
+    // Factory for an engine name as accepted on the command line
+    public static Supplier<AI> engine(String spec) {
+        if (spec.toLowerCase(Locale.ROOT).startsWith("ponder:")) {
+            Supplier<AI> pondered = engine(spec.substring("ponder:".length()));
+            return () -> new PonderingAI(pondered, 1);
+        }
+        String[] parts = spec.toLowerCase(Locale.ROOT).split(":");
+        int depth = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+        switch (parts[0]) {
+            case "random": return RandomAI::new;
+            case "thoughtful": return ThoughtfulAI::new;
+            case "alphabeta": return depth > 0 ? () -> new AlphaBetaAI(depth) : AlphaBetaAI::new;
+            case "parallel": return depth > 0 ? () -> new ParallelAI(1, depth, 16) : () -> new ParallelAI(1);
+            case "perfect": return PerfectAI::new;
+            default:
+                Difficulty level = Difficulty.named(parts[0]);
+                if (level == null) throw new IllegalArgumentException("Unknown AI: " + spec);
+                return level::createAI;
+        }
+    }
+
+    public static Result run(Supplier<AI> first, Supplier<AI> second, long games, int threads, long seed,
+                             int openingMoves) throws InterruptedException {
+        return run(first, second, games, threads, seed, openingMoves, BoardGeometry.STANDARD);
+    }
+
+    // Every worker thread gets its own pair of engines, engines are never shared between threads
+    public static Result run(Supplier<AI> first, Supplier<AI> second, long games, int threads, long seed,
+                             int openingMoves, BoardGeometry geometry) throws InterruptedException {
+        AtomicLong next = new AtomicLong();
+        AtomicLong finished = new AtomicLong();
+        Result[] results = new Result[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            Result result = new Result();
+            results[t] = result;
+            workers[t] = new Thread(() -> {
+                AI[] engines = { first.get(), second.get() };
+                long game;
+                while ((game = next.getAndIncrement()) < games) {
+                    playGame(engines, game, seed, openingMoves, geometry, result);
+                    long done = finished.incrementAndGet();
+                    if (done % PROGRESS_INTERVAL == 0) System.err.println("Played " + done + " / " + games);
+                }
+                for (AI engine : engines) {
+                    if (engine instanceof ParallelAI) ((ParallelAI) engine).shutdown();
+                    if (engine instanceof PonderingAI) ((PonderingAI) engine).shutdown();
+                }
+            }, "tournament-" + t);
+            workers[t].start();
+        }
+
+        Result total = new Result();
+        for (int t = 0; t < threads; t++) {
+            workers[t].join();
+            total.add(results[t]);
+        }
+        return total;
+    }
+
+    private static void playGame(AI[] engines, long game, long seed, int openingMoves, BoardGeometry geometry,
+                                 Result result) {
+        long gameSeed = mix(seed + game);
+        for (int i = 0; i < 2; i++) {
+            engines[i].newGame();
+            engines[i].setSeed(mix(gameSeed + i + 1));
+        }
+        SplittableRandom openings = new SplittableRandom(gameSeed);
+
+        // The first AI moves first in even games; its stones are PLAYER's
+        Position position = new Position(geometry, game % 2 == 0 ? GameConfig.PLAYER : GameConfig.AI);
+        while (true) {
+            int engine = position.getToMove() == GameConfig.PLAYER ? 0 : 1;
+            int column;
+            if (position.getMoves() < openingMoves) {
+                column = randomMove(position, openings);
+            }
+            else {
+                long start = System.nanoTime();
+                column = engines[engine].chooseColumn(position);
+                result.nanos[engine] += System.nanoTime() - start;
+                result.nodes[engine] += engines[engine].getNodeCount();
+                result.moves[engine]++;
+            }
+            if (column < 0 || column >= geometry.getColumns() || !position.canPlay(column)) {
+                throw new IllegalStateException(engines[engine].getClass().getSimpleName() + " played column "
+                        + column + " in game " + game);
+            }
+
+            position.play(column);
+            if (position.isWinAt(column)) {
+                if (engine == 0) result.wins++;
+                else result.losses++;
+                return;
+            }
+            if (position.isFull()) {
+                result.draws++;
+                return;
+            }
+        }
+    }
+
+    // SplitMix64 finalizer, turns consecutive numbers into unrelated seeds
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int randomMove(Position position, SplittableRandom random) {
+        int[] playable = new int[position.getGeometry().getColumns()];
+        int count = 0;
+        for (int column = 0; column < playable.length; column++) {
+            if (position.canPlay(column)) playable[count++] = column;
+        }
+        return playable[random.nextInt(count)];
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.connect4.engine;
+
+// Fixed-size transposition table keyed by Position.getCanonicalHash(), so mirror images share an entry;
+// moves are stored in the canonical orientation (Position.canonicalMove).
+// Every bucket has two slots: slot 0 keeps the deepest result (or any result from an older search),
+// slot 1 is always overwritten. Entries are two longs in primitive arrays, nothing is allocated after construction.
+// The key is stored xor-ed with the data so a torn write from another thread is detected as a miss.
+public class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER = 2; // Score is a lower bound (search failed high)
+    public static final int UPPER = 3; // Score is an upper bound (search failed low)
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+    private static final int SCORE_OFFSET = 1 << 15;
+    private static final int MATE_THRESHOLD = Evaluator.WINNING_SCORE - BoardGeometry.MAX_CELLS - 1;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private int generation;
+
+    public TranspositionTable(int megabytes) {
+        // Largest power of two number of buckets that fits in the requested size
+        long entries = Math.max(2, (long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        int buckets = Integer.highestOneBit((int) Math.min(entries / 2, 1 << 29));
+        keys = new long[buckets * 2];
+        data = new long[buckets * 2];
+        bucketMask = buckets - 1;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    // Call at the start of every search so entries from older searches can be replaced
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public void clear() {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 0;
+            data[i] = 0;
+        }
+        generation = 0;
+    }
+
+    // Packed entry for this hash, or 0 if it is not in the table
+    public long probe(long hash) {
+        int slot = (int) (hash & bucketMask) << 1;
+        for (int i = slot; i < slot + 2; i++) {
+            long entry = data[i];
+            if (entry != 0 && (keys[i] ^ entry) == hash) return entry;
+        }
+        return 0;
+    }
+
+    public void store(long hash, int depth, int bound, int score, int move) {
+        long entry = (score + SCORE_OFFSET)
+                | (long) depth << 16
+                | (long) bound << 24
+                | (long) (move + 1) << 26
+                | (long) generation << 30;
+
+        int slot = (int) (hash & bucketMask) << 1;
+        long deepest = data[slot];
+        boolean sameKey = deepest != 0 && (keys[slot] ^ deepest) == hash;
+        if (deepest == 0 || sameKey || depth >= depth(deepest) || generation(deepest) != generation) {
+            keys[slot] = hash ^ entry;
+            data[slot] = entry;
+        } else {
+            keys[slot + 1] = hash ^ entry;
+            data[slot + 1] = entry;
+        }
+    }
+
+    // Raw slot contents for snapshots, see PositionCache; the hash is the key xor the entry
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    long entryAt(int slot) {
+        return data[slot];
+    }
+
+    // Put back an entry taken from a snapshot, deepest in slot 0 like store
+    void restore(long hash, long entry) {
+        int slot = (int) (hash & bucketMask) << 1;
+        long deepest = data[slot];
+        if (deepest != 0 && depth(entry) < depth(deepest)) slot++;
+        keys[slot] = hash ^ entry;
+        data[slot] = entry;
+    }
+
+    public static int score(long entry) {
+        return (int) (entry & 0xFFFF) - SCORE_OFFSET;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 16) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 24) & 0x3;
+    }
+
+    // Best move stored with the entry, or GameConfig.INVALID
+    public static int move(long entry) {
+        return ((int) (entry >>> 26) & 0xF) - 1;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 30) & 0xFF;
+    }
+
+    // Win/loss scores depend on the ply they are found at, store them relative to the node instead
+    public static int scoreToTable(int score, int ply) {
+        if (score > MATE_THRESHOLD) return score + ply;
+        if (score < -MATE_THRESHOLD) return score - ply;
+        return score;
+    }
+
+    public static int scoreFromTable(int score, int ply) {
+        if (score > MATE_THRESHOLD) return score - ply;
+        if (score < -MATE_THRESHOLD) return score + ply;
+        return score;
+    }
+}
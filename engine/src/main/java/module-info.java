@@ -0,0 +1,7 @@
+// Game rules, AIs and solver; no JavaFX, so it runs in any headless JVM
+module com.example.connect4.engine {
+    requires jdk.jfr; // Search events, see JfrSearchListener
+    requires transitive jdk.httpserver; // SearchMetrics.serve returns its HttpServer
+
+    exports com.example.connect4.engine;
+}
@@ -0,0 +1,74 @@
+package com.example.connect4.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Parsing and limits of runtime board sizes, and the local win check through the last cell against the
+// whole-board alignment test it replaces
+class BoardGeometryTest {
+    private static final List<BoardGeometry> EXTREMES = List.of(BoardGeometry.parse("2x2x2"), BoardGeometry.parse("8x8x8"));
+
+    @Test
+    void parsedGeometriesAreInternedAndPrintTheirSpec() {
+        for (BoardGeometry geometry : geometries()) {
+            String spec = geometry.toString();
+            assertSame(geometry, BoardGeometry.parse(spec));
+            assertSame(geometry, BoardGeometry.parse(spec.toUpperCase()));
+        }
+        assertEquals("9x7x5", BoardGeometry.parse("9X7X5").toString());
+        assertSame(BoardGeometry.STANDARD, BoardGeometry.parse("7x6x4"));
+        assertTrue(BoardGeometry.STANDARD.isStandard());
+        assertTrue(BoardGeometry.parse("8x7").isPadded());
+        assertFalse(BoardGeometry.parse("9x7").isPadded());
+    }
+
+    @Test
+    void boardsThatDoNotFitAreRejected() {
+        for (String spec : new String[] { "15x4", "1x6", "7x1", "9x8", "7x6x8", "7x6x1", "7", "7x6x4x1", "ax6", "" }) {
+            assertThrows(IllegalArgumentException.class, () -> BoardGeometry.parse(spec), spec);
+        }
+    }
+
+    @Test
+    void winThroughACellMatchesTheWholeBoardTest() {
+        Random random = new Random(6);
+        for (BoardGeometry geometry : geometries()) {
+            for (int i = 0; i < 20000; i++) {
+                long stones = randomStones(geometry, random);
+                if (geometry.alignment(stones)) continue; // A line elsewhere already wins, not just this cell
+                int column = random.nextInt(geometry.getColumns());
+                int height = random.nextInt(geometry.getRows());
+                long cell = geometry.bit(column, height);
+                if ((stones & cell) != 0) continue;
+                assertEquals(geometry.alignment(stones | cell), geometry.winsThrough(stones, column, height),
+                        geometry + " stones " + Long.toHexString(stones) + " cell " + column + "," + height);
+            }
+        }
+    }
+
+    private static List<BoardGeometry> geometries() {
+        List<BoardGeometry> geometries = new ArrayList<>(RandomGames.GEOMETRIES);
+        geometries.addAll(EXTREMES);
+        return geometries;
+    }
+
+    // About a third of the cells, so lines through the cell are often one stone short
+    private static long randomStones(BoardGeometry geometry, Random random) {
+        long stones = 0;
+        for (int column = 0; column < geometry.getColumns(); column++) {
+            for (int height = 0; height < geometry.getRows(); height++) {
+                if (random.nextInt(3) == 0) stones |= geometry.bit(column, height);
+            }
+        }
+        return stones;
+    }
+}
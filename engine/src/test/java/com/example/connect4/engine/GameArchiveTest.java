@@ -0,0 +1,138 @@
+package com.example.connect4.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// GameRecordWriter and GameRecordReader: random games written and read back, on the standard board and on one
+// with more columns and another win length, appending to an existing archive and to a version 1 archive
+class GameArchiveTest {
+    private static final int GAMES = 2000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void randomGamesRoundTrip() throws IOException {
+        for (BoardGeometry geometry : new BoardGeometry[] { BoardGeometry.STANDARD, BoardGeometry.parse("9x7x5") }) {
+            Path path = directory.resolve(geometry + ".c4a");
+            List<GameRecord> games = randomGames(geometry, new Random(geometry.getCells()), GAMES);
+            try (GameRecordWriter writer = new GameRecordWriter(path, geometry)) {
+                for (GameRecord game : games) writer.append(game);
+                assertEquals(GAMES, writer.getRecordCount());
+            }
+            assertTrue(GameRecordReader.isArchive(path));
+            assertArchiveHolds(path, geometry, games);
+        }
+    }
+
+    @Test
+    void appendingKeepsEarlierGames() throws IOException {
+        Path path = directory.resolve("append.c4a");
+        List<GameRecord> games = randomGames(BoardGeometry.STANDARD, new Random(2), 300);
+        try (GameRecordWriter writer = new GameRecordWriter(path)) {
+            for (GameRecord game : games.subList(0, 100)) writer.append(game);
+        }
+        try (GameRecordWriter writer = new GameRecordWriter(path)) {
+            for (GameRecord game : games.subList(100, 300)) writer.append(game);
+        }
+        assertArchiveHolds(path, BoardGeometry.STANDARD, games);
+    }
+
+    @Test
+    void versionOneArchivesAreReadAndAppendedTo() throws IOException {
+        Path path = directory.resolve("version1.c4a");
+        List<GameRecord> games = randomGames(BoardGeometry.STANDARD, new Random(3), 300);
+        try (GameRecordWriter writer = new GameRecordWriter(path)) {
+            for (GameRecord game : games.subList(0, 200)) writer.append(game);
+        }
+
+        // Version 1 wrote the same records behind a header without the win length byte
+        byte[] written = Files.readAllBytes(path);
+        ByteBuffer version1 = ByteBuffer.allocate(written.length - 1);
+        version1.putInt(GameRecordWriter.MAGIC).put((byte) 1).put((byte) GameConfig.COLUMNS).put((byte) GameConfig.ROWS);
+        version1.put(written, GameRecordWriter.HEADER_SIZE, written.length - GameRecordWriter.HEADER_SIZE);
+        Files.write(path, version1.array());
+        assertArchiveHolds(path, BoardGeometry.STANDARD, games.subList(0, 200));
+
+        try (GameRecordWriter writer = new GameRecordWriter(path)) {
+            for (GameRecord game : games.subList(200, 300)) writer.append(game);
+        }
+        assertArchiveHolds(path, BoardGeometry.STANDARD, games);
+        assertEquals(1, Files.readAllBytes(path)[Integer.BYTES]); // Still a version 1 file
+    }
+
+    @Test
+    void archiveOfAnotherBoardIsRejected() throws IOException {
+        Path path = directory.resolve("standard.c4a");
+        new GameRecordWriter(path).close();
+        assertThrows(IOException.class, () -> new GameRecordWriter(path, BoardGeometry.parse("9x7")));
+
+        try (GameRecordWriter writer = new GameRecordWriter(path)) {
+            GameRecord other = new GameRecord(BoardGeometry.parse("9x7"), GameConfig.PLAYER, null, new byte[] { 8 });
+            assertThrows(IllegalArgumentException.class, () -> writer.append(other));
+        }
+    }
+
+    @Test
+    void otherFilesAreNotArchives() throws IOException {
+        Path path = directory.resolve("save.txt");
+        Files.write(path, "FirstToMove=1\n".getBytes());
+        assertFalse(GameRecordReader.isArchive(path));
+        assertThrows(IOException.class, () -> new GameRecordReader(path));
+    }
+
+    private static void assertArchiveHolds(Path path, BoardGeometry geometry, List<GameRecord> games) throws IOException {
+        try (GameRecordReader reader = new GameRecordReader(path)) {
+            assertSame(geometry, reader.getGeometry());
+            for (int i = 0; i < games.size(); i++) {
+                GameRecord expected = games.get(i);
+                GameRecord actual = reader.read();
+                String name = path.getFileName() + " game " + i;
+                assertSame(geometry, actual.getGeometry(), name);
+                assertEquals(expected.getFirstToMove(), actual.getFirstToMove(), name + " first to move");
+                assertEquals(expected.getDifficulty(), actual.getDifficulty(), name + " difficulty");
+                assertEquals(expected.getMoveCount(), actual.getMoveCount(), name + " move count");
+                for (int ply = 0; ply < expected.getMoveCount(); ply++) {
+                    assertEquals(expected.getColumn(ply), actual.getColumn(ply), name + " ply " + ply);
+                }
+            }
+            assertNull(reader.read());
+        }
+    }
+
+    // Legal games, finished or stopped at a random ply, with every difficulty name the format knows
+    private static List<GameRecord> randomGames(BoardGeometry geometry, Random random, int count) {
+        List<GameRecord> games = new ArrayList<>();
+        for (int game = 0; game < count; game++) {
+            int firstToMove = RandomGames.firstToMove(random);
+            String difficulty = GameRecord.DIFFICULTIES[random.nextInt(GameRecord.DIFFICULTIES.length)];
+            Position position = new Position(geometry, firstToMove);
+            byte[] columns = new byte[geometry.getCells()];
+            int length = random.nextInt(4) == 0 ? random.nextInt(geometry.getCells() + 1) : geometry.getCells();
+            int moves = 0;
+            while (moves < length && !position.isFull() && !position.lastMoverWon()) {
+                int column = RandomGames.column(position, random);
+                position.play(column);
+                columns[moves++] = (byte) column;
+            }
+            games.add(new GameRecord(geometry, firstToMove, difficulty, Arrays.copyOf(columns, moves)));
+        }
+        return games;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.connect4.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The text protocol over loopback: games played to the end against a local copy of the game, errors that
+// leave the session open, and a session closed while its AI is thinking without harm to the others
+class GameServerTest {
+    private static final int TIMEOUT_MILLIS = 60_000;
+    private static final BoardGeometry ABANDONED_BOARD = BoardGeometry.parse("9x7x5"); // Marks the searches of the closed session
+
+    private final CountDownLatch abandonedSearchHeld = new CountDownLatch(1);
+    private final CountDownLatch leaverClosed = new CountDownLatch(1);
+    private GameServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+        // Listeners run on the AI thread before the move is handed back, so holding one keeps the search going
+        server.addSearchListener((ai, stats) -> {
+            if (stats.getPosition().getGeometry() != ABANDONED_BOARD) return;
+            abandonedSearchHeld.countDown();
+            try {
+                leaverClosed.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // The server is closing
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void gamesArePlayedToTheEnd() throws IOException {
+        try (Client client = new Client()) {
+            playToTheEnd(client, GameConfig.PLAYER, "EASY");
+            playToTheEnd(client, GameConfig.AI, "BEGINNER");
+        }
+    }
+
+    @Test
+    void errorsKeepTheSessionOpen() throws IOException {
+        try (Client client = new Client()) {
+            assertEquals("OK NEW", client.send("NEW PLAYER BEGINNER"));
+            assertEquals("ERR column 7 is not playable", client.send("PLAY 7"));
+            assertEquals("ERR column -1 is not playable", client.send("PLAY -1"));
+            assertEquals("ERR column must be a number", client.send("PLAY x"));
+            assertEquals("ERR usage: PLAY <column>", client.send("PLAY"));
+            assertEquals("ERR unknown option 7X", client.send("NEW 7x"));
+            assertEquals("ERR unknown command JUMP", client.send("JUMP 3"));
+            assertEquals("STATUS IN_PROGRESS PLAYER -", client.send("STATUS"));
+
+            assertEquals("OK PLAY 3 5", client.send("PLAY 3"));
+            assertTrue(client.readLine().startsWith("MOVE "));
+            assertEquals("BYE", client.send("QUIT"));
+            assertNull(client.readLine());
+        }
+    }
+
+    @Test
+    void closingWhileTheAiThinksLeavesOtherSessionsServed() throws Exception {
+        try (Client player = new Client(); Client leaver = new Client()) {
+            assertEquals("OK NEW", player.send("NEW PLAYER EASY"));
+            assertEquals("OK NEW", leaver.send("NEW PLAYER MEDIUM " + ABANDONED_BOARD));
+            assertEquals("OK PLAY 4 6", leaver.send("PLAY 4"));
+            assertTrue(abandonedSearchHeld.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            leaver.close(); // Before the server has the AI's reply
+
+            // The other session plays on while that search holds an AI thread, and after its move is dropped
+            Game game = new Game(GameConfig.PLAYER);
+            playMove(player, game);
+            leaverClosed.countDown();
+            while (!game.isOver()) playMove(player, game);
+        }
+
+        // And the server still accepts new sessions
+        try (Client client = new Client()) {
+            assertEquals("OK NEW", client.send("NEW AI BEGINNER"));
+            assertTrue(client.readLine().startsWith("MOVE "));
+        }
+    }
+
+    // New game on the standard board, then the lowest playable column every turn until the game ends;
+    // every reply must match a local Game playing the same moves
+    private static void playToTheEnd(Client client, int firstToMove, String difficulty) throws IOException {
+        Game game = new Game(firstToMove);
+        assertEquals("OK NEW", client.send("NEW " + (firstToMove == GameConfig.PLAYER ? "PLAYER " : "AI ") + difficulty));
+        if (firstToMove == GameConfig.AI) readAiMove(client, game);
+        while (!game.isOver()) playMove(client, game);
+        assertEquals("STATUS " + game.getStatus() + " " + (game.getToMove() == GameConfig.PLAYER ? "PLAYER" : "AI") + " "
+                + columnsPlayed(game), client.send("STATUS"));
+        assertEquals("ERR game is over", client.send("PLAY 0"));
+    }
+
+    // One move of the player and the AI's reply, with the end of the game after either
+    private static void playMove(Client client, Game game) throws IOException {
+        int column = 0;
+        while (!game.canPlay(column)) column++;
+        int row = game.play(column);
+        assertEquals("OK PLAY " + column + " " + row, client.send("PLAY " + column));
+        if (game.getStatus() == Game.Status.PLAYER_WON) assertEquals("END WIN", client.readLine());
+        else if (game.getStatus() == Game.Status.DRAW) assertEquals("END DRAW", client.readLine());
+        else readAiMove(client, game);
+    }
+
+    private static void readAiMove(Client client, Game game) throws IOException {
+        String[] move = client.readLine().split(" ");
+        assertEquals("MOVE", move[0]);
+        int column = Integer.parseInt(move[1]);
+        assertEquals(game.findEmptyRow(column), Integer.parseInt(move[2]), "row of the AI's move");
+        game.play(column);
+        if (game.getStatus() == Game.Status.AI_WON) assertEquals("END LOSE", client.readLine());
+        else if (game.getStatus() == Game.Status.DRAW) assertEquals("END DRAW", client.readLine());
+    }
+
+    private static String columnsPlayed(Game game) {
+        StringBuilder columns = new StringBuilder();
+        for (GameData.Move move : game.getMoveLog()) columns.append(move.column);
+        return columns.length() > 0 ? columns.toString() : "-";
+    }
+
+    // Blocking connection that sends a line and reads the replies one at a time
+    private class Client implements Closeable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client() throws IOException {
+            socket = new Socket();
+            socket.connect(server.getAddress(), TIMEOUT_MILLIS);
+            socket.setSoTimeout(TIMEOUT_MILLIS);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), true);
+        }
+
+        // Send a command and return the first line of the reply
+        String send(String line) throws IOException {
+            out.println(line);
+            return readLine();
+        }
+
+        String readLine() throws IOException {
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.connect4.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// What Game adds to its MoveHistory: the result after winning and drawing moves, the rows of the move log,
+// and no moves once the game is over. Undo, redo and jumps themselves are tested in MoveHistoryTest.
+class GameTest {
+    private static final int[] VERTICAL_WIN = { 0, 1, 0, 1, 0, 1, 0 };
+    private static final BoardGeometry SMALL = BoardGeometry.parse("4x4x3");
+    private static final int[] SMALL_DRAW = { 1, 3, 3, 1, 2, 3, 1, 0, 3, 1, 0, 2, 2, 0, 0, 2 };
+
+    @Test
+    void winningMoveEndsTheGameForItsSide() {
+        Game game = play(new Game(GameConfig.PLAYER), VERTICAL_WIN);
+        assertEquals(Game.Status.PLAYER_WON, game.getStatus());
+        assertTrue(game.isOver());
+
+        game = play(new Game(GameConfig.AI), VERTICAL_WIN);
+        assertEquals(Game.Status.AI_WON, game.getStatus());
+    }
+
+    @Test
+    void fillingTheBoardWithoutALineIsADraw() {
+        Game game = new Game(SMALL, GameConfig.PLAYER);
+        for (int i = 0; i < SMALL_DRAW.length; i++) {
+            assertEquals(Game.Status.IN_PROGRESS, game.getStatus(), "move " + i);
+            game.play(SMALL_DRAW[i]);
+        }
+        assertEquals(Game.Status.DRAW, game.getStatus());
+        assertEquals(SMALL.getCells(), game.getPly());
+    }
+
+    @Test
+    void noMoveIsPlayedAfterTheEnd() {
+        Game won = play(new Game(), VERTICAL_WIN);
+        assertFalse(won.canPlay(2));
+        assertEquals(GameConfig.INVALID, won.play(2));
+        assertEquals(GameConfig.INVALID, won.chooseAiMove(new AlphaBetaAI(2)));
+        assertEquals(VERTICAL_WIN.length, won.getPly());
+
+        Game drawn = play(new Game(SMALL, GameConfig.AI), SMALL_DRAW);
+        for (int column = 0; column < SMALL.getColumns(); column++) {
+            assertEquals(GameConfig.INVALID, drawn.play(column));
+        }
+    }
+
+    @Test
+    void undoRedoAndJumpsRecomputeTheResult() {
+        Game game = play(new Game(), VERTICAL_WIN);
+        game.undo();
+        assertEquals(Game.Status.IN_PROGRESS, game.getStatus());
+        game.redo();
+        assertEquals(Game.Status.PLAYER_WON, game.getStatus());
+        game.jumpTo(2);
+        assertEquals(Game.Status.IN_PROGRESS, game.getStatus());
+        game.jumpTo(VERTICAL_WIN.length);
+        assertEquals(Game.Status.PLAYER_WON, game.getStatus());
+
+        Game drawn = play(new Game(SMALL, GameConfig.PLAYER), SMALL_DRAW);
+        drawn.undo();
+        assertEquals(Game.Status.IN_PROGRESS, drawn.getStatus());
+        drawn.redo();
+        assertEquals(Game.Status.DRAW, drawn.getStatus());
+    }
+
+    @Test
+    void moveLogRowsAreCountedFromTheTop() {
+        Game game = new Game(GameConfig.AI);
+        assertEquals(GameConfig.ROWS - 1, game.play(3));
+        assertEquals(GameConfig.ROWS - 2, game.play(3));
+        assertEquals(GameConfig.ROWS - 1, game.play(4));
+
+        assertMove(game.getMoveLog().get(0), "AI", 3, GameConfig.ROWS - 1);
+        assertMove(game.getMoveLog().get(1), "PLAYER", 3, GameConfig.ROWS - 2);
+        assertMove(game.getMoveLog().get(2), "AI", 4, GameConfig.ROWS - 1);
+        assertEquals(3, game.getMoveLog().size());
+
+        // Undone moves leave the log, and a redo brings back the same entry
+        GameData.Move last = game.getMoveLog().get(2);
+        game.undo();
+        assertEquals(2, game.getMoveLog().size());
+        game.redo();
+        assertSame(last, game.getMoveLog().get(2));
+
+        game.undo();
+        game.play(0); // Replaces the undone move
+        assertMove(game.getMoveLog().get(2), "AI", 0, GameConfig.ROWS - 1);
+        assertEquals(3, game.getHistorySize());
+    }
+
+    @Test
+    void gameDataIsACopy() {
+        Game game = new Game();
+        game.play(3);
+        GameData copy = game.getGameData();
+        game.play(4);
+        assertEquals(1, copy.getMoveLog().size());
+        assertEquals(2, game.getMoveLog().size());
+        assertEquals(GameConfig.PLAYER, (int) copy.getBoard().get(GameConfig.ROWS - 1).get(3));
+        assertEquals(GameConfig.EMPTY, (int) copy.getBoard().get(GameConfig.ROWS - 1).get(4));
+    }
+
+    private static Game play(Game game, int... columns) {
+        for (int column : columns) game.play(column);
+        return game;
+    }
+
+    private static void assertMove(GameData.Move move, String player, int column, int row) {
+        assertEquals(player, move.player);
+        assertEquals(column, move.column);
+        assertEquals(row, move.row);
+    }
+}
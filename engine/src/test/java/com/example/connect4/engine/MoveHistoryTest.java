@@ -0,0 +1,95 @@
+package com.example.connect4.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Random plays, undos, redos and jumps against a list of columns replayed from the empty board every step,
+// so jumps across checkpoints, to them and within one interval are all compared with a plain replay
+class MoveHistoryTest {
+    private static final int GAMES = 250;
+    private static final int STEPS = 80;
+
+    @Test
+    void randomEditsMatchAReplay() {
+        Random random = new Random(4);
+        for (BoardGeometry geometry : RandomGames.GEOMETRIES) {
+            for (int game = 0; game < GAMES; game++) {
+                int firstToMove = RandomGames.firstToMove(random);
+                MoveHistory history = new MoveHistory(geometry, firstToMove);
+                List<Integer> columns = new ArrayList<>();
+                int ply = 0;
+
+                for (int step = 0; step < STEPS; step++) {
+                    int operation = random.nextInt(5);
+                    if (operation < 2) {
+                        if (history.getPosition().isFull()) continue;
+                        int column = RandomGames.column(history.getPosition(), random);
+                        history.play(column);
+                        columns.subList(ply, columns.size()).clear();
+                        columns.add(column);
+                        ply++;
+                    } else if (operation == 2) {
+                        int column = history.undo();
+                        assertEquals(ply > 0 ? columns.get(ply - 1) : GameConfig.INVALID, column);
+                        if (ply > 0) ply--;
+                    } else if (operation == 3) {
+                        int column = history.redo();
+                        assertEquals(ply < columns.size() ? columns.get(ply) : GameConfig.INVALID, column);
+                        if (ply < columns.size()) ply++;
+                    } else {
+                        ply = random.nextInt(columns.size() + 1);
+                        history.jumpTo(ply);
+                    }
+                    assertMatches(history, geometry, firstToMove, columns, ply, geometry + " game " + game + " step " + step);
+                }
+            }
+        }
+    }
+
+    private static void assertMatches(MoveHistory history, BoardGeometry geometry, int firstToMove, List<Integer> columns,
+                                      int ply, String name) {
+        Position expected = new Position(geometry, firstToMove);
+        for (int i = 0; i < ply; i++) expected.play(columns.get(i));
+        Position actual = history.getPosition();
+
+        assertEquals(ply, history.getPly(), name + " ply");
+        assertEquals(columns.size(), history.size(), name + " size");
+        assertEquals(ply > 0, history.canUndo(), name + " canUndo");
+        assertEquals(ply < columns.size(), history.canRedo(), name + " canRedo");
+        assertEquals(expected.getMask(), actual.getMask(), name + " mask");
+        assertEquals(expected.getStones(GameConfig.PLAYER), actual.getStones(GameConfig.PLAYER), name + " stones");
+        assertEquals(expected.getHash(), actual.getHash(), name + " hash");
+        assertEquals(expected.getToMove(), actual.getToMove(), name + " side to move");
+        assertEquals(ply, actual.getMoves(), name + " moves");
+        for (int i = 0; i < columns.size(); i++) assertEquals((int) columns.get(i), history.getColumn(i), name + " column " + i);
+    }
+
+    @Test
+    void jumpOutsideTheHistoryIsRejected() {
+        MoveHistory history = new MoveHistory();
+        for (int column : new int[] { 3, 3, 4 }) history.play(column);
+        assertThrows(IllegalArgumentException.class, () -> history.jumpTo(4));
+        assertThrows(IllegalArgumentException.class, () -> history.jumpTo(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.getColumn(3));
+    }
+
+    @Test
+    void recordIsReplayedToItsEnd() {
+        GameRecord record = new GameRecord(GameConfig.AI, null, new byte[] { 3, 2, 4, 2, 5, 5, 0, 1, 0 });
+        MoveHistory history = MoveHistory.of(record);
+        assertEquals(record.getMoveCount(), history.getPly());
+        assertFalse(history.canRedo());
+        assertEquals(GameConfig.PLAYER, history.getPosition().getToMove());
+
+        history.jumpTo(0);
+        assertEquals(0, history.getPosition().getMask());
+        assertEquals(GameConfig.AI, history.getPosition().getToMove());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.connect4.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// A small book written, mapped and read back, and headers whose entry count does not fit the file;
+// counts that wrap around in int offsets are the ones an int-only length check lets through
+class OpeningBookTest {
+    private static final long[] KEYS = { 3, 17, 256, 1L << 40, Long.MAX_VALUE };
+    private static final byte[] SCORES = { 0, -5, 7, 21, -18 };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writtenBookIsFoundByKey() throws IOException {
+        Path path = directory.resolve("book.bin");
+        OpeningBook.write(path, 8, KEYS, SCORES, KEYS.length);
+        for (OpeningBook book : new OpeningBook[] { OpeningBook.map(path), OpeningBook.read(Files.newInputStream(path)) }) {
+            assertEquals(8, book.getMaxPly());
+            assertEquals(KEYS.length, book.size());
+            for (int i = 0; i < KEYS.length; i++) {
+                assertEquals(KEYS[i], book.getKey(i));
+                assertEquals(SCORES[i], book.getScore(KEYS[i]));
+            }
+            assertEquals(OpeningBook.UNKNOWN, book.getScore(4));
+            assertEquals(OpeningBook.UNKNOWN, book.getScore(Long.MIN_VALUE));
+        }
+    }
+
+    @Test
+    void emptyBookKnowsNothing() throws IOException {
+        OpeningBook book = OpeningBook.read(new ByteArrayInputStream(withCount(bookBytes(), 0, OpeningBook.HEADER_SIZE)));
+        assertEquals(0, book.size());
+        assertEquals(OpeningBook.UNKNOWN, book.getScore(KEYS[0]));
+    }
+
+    @Test
+    void countsBeyondTheFileAreRejected() throws IOException {
+        byte[] bytes = bookBytes();
+        for (int count : new int[] { -1, Integer.MIN_VALUE, KEYS.length + 1, 0x30000000, 0x40000000, Integer.MAX_VALUE }) {
+            byte[] corrupt = withCount(bytes, count, bytes.length);
+            assertThrows(IOException.class, () -> OpeningBook.read(new ByteArrayInputStream(corrupt)), "count " + count);
+        }
+        byte[] truncated = withCount(bytes, KEYS.length, bytes.length - 1);
+        assertThrows(IOException.class, () -> OpeningBook.read(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    void otherFilesAreRejected() {
+        byte[] bytes = "not an opening book".getBytes();
+        assertThrows(IOException.class, () -> OpeningBook.read(new ByteArrayInputStream(bytes)));
+        assertThrows(IOException.class, () -> OpeningBook.read(new ByteArrayInputStream(new byte[4])));
+    }
+
+    private byte[] bookBytes() throws IOException {
+        Path path = directory.resolve("source.bin");
+        OpeningBook.write(path, 8, KEYS, SCORES, KEYS.length);
+        return Files.readAllBytes(path);
+    }
+
+    // The first length bytes of a book, with another entry count in the header
+    private static byte[] withCount(byte[] book, int count, int length) {
+        byte[] bytes = Arrays.copyOf(book, length);
+        ByteBuffer.wrap(bytes).putInt(OpeningBook.HEADER_SIZE - Integer.BYTES, count); // Last field of the header
+        return bytes;
+    }
+}
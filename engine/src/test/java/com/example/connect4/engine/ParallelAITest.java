@@ -0,0 +1,56 @@
+package com.example.connect4.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelAITest {
+    private static final long LONG_BUDGET_MILLIS = 3000;
+    private static final long SHORT_BUDGET_MILLIS = 50;
+    private static final int ROUNDS = 10;
+
+    private final ParallelAI ai = new ParallelAI(3, 40, 4);
+    private final Queue<Throwable> helperFailures = new ConcurrentLinkedQueue<>();
+    private Thread.UncaughtExceptionHandler previousHandler;
+
+    // Helpers run on pool threads, whatever they throw only reaches the default handler
+    @BeforeEach
+    void catchHelperFailures() {
+        previousHandler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, failure) -> helperFailures.add(failure));
+    }
+
+    @AfterEach
+    void shutDown() {
+        ai.shutdown();
+        Thread.setDefaultUncaughtExceptionHandler(previousHandler);
+    }
+
+    // An interrupted search must still stop its helpers before returning; otherwise the next search
+    // restarts them, they run on to their own deadline, and the next search runs its helper engines
+    // alongside them
+    @Test
+    void interruptedSearchStopsItsHelpers() {
+        Position position = new Position();
+        for (int round = 0; round < ROUNDS; round++) {
+            ai.setTimeBudget(LONG_BUDGET_MILLIS);
+            Thread.currentThread().interrupt();
+            ai.chooseColumn(position);
+            assertTrue(Thread.interrupted(), "interrupt flag restored");
+
+            ai.setTimeBudget(SHORT_BUDGET_MILLIS);
+            long start = System.nanoTime();
+            int column = ai.chooseColumn(position);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(column >= 0 && column < GameConfig.COLUMNS);
+            assertTrue(elapsedMillis < LONG_BUDGET_MILLIS / 2, "next search took " + elapsedMillis + " ms");
+            assertTrue(helperFailures.isEmpty(), "helper failed: " + helperFailures.peek());
+            position.play(column);
+        }
+    }
+}
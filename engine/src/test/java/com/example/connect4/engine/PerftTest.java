@@ -0,0 +1,77 @@
+package com.example.connect4.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Known move path counts of the standard board for every board implementation, and every implementation
+// agreeing move by move with the array board, which shares no code with Position, on other boards and
+// from positions in the middle of a game
+class PerftTest {
+    // Positions after 1 to 8 plies of 7x6 connect four; games won at ply 7 end 4 of the 7^7 paths
+    private static final long[] STANDARD_COUNTS = { 7, 49, 343, 2401, 16807, 117649, 823536, 5673234 };
+    private static final int SLOW_DEPTH = 7; // Array, GameData and Position stop here, bitboard goes on
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void shutDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void standardBoardCounts() {
+        GameRecord start = new GameRecord(GameConfig.PLAYER, null, new byte[0]);
+        for (Perft.Implementation implementation : Perft.Implementation.values()) {
+            int maxDepth = implementation == Perft.Implementation.BITBOARD ? STANDARD_COUNTS.length : SLOW_DEPTH;
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                assertEquals(STANDARD_COUNTS[depth - 1], Perft.count(implementation, start, depth, pool),
+                        implementation.getDisplayName() + " depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    void implementationsAgreeWithTheArrayBoard() {
+        BoardGeometry wide = BoardGeometry.parse("9x7x5");
+        BoardGeometry small = BoardGeometry.parse("4x4x3");
+        GameRecord[] starts = {
+                new GameRecord(wide, GameConfig.PLAYER, null, new byte[0]),
+                new GameRecord(wide, GameConfig.AI, null, new byte[] { 4, 4, 3, 5, 8 }),
+                new GameRecord(small, GameConfig.PLAYER, null, new byte[0]),
+                new GameRecord(small, GameConfig.AI, null, new byte[] { 1, 2, 2 }),
+                new GameRecord(small, GameConfig.PLAYER, null, new byte[] { 0, 3, 2, 1, 3, 0, 0, 1 }), // To a full board
+                new GameRecord(BoardGeometry.parse("14x4"), GameConfig.PLAYER, null, new byte[0]),
+                new GameRecord(BoardGeometry.parse("8x7"), GameConfig.AI, null, new byte[] { 0, 7, 7 }),
+                new GameRecord(GameConfig.PLAYER, null, new byte[] { 3, 3, 2, 4, 1 }), // Must block column 0
+        };
+        int[] depths = { 5, 5, 8, 8, 8, 4, 5, 6 };
+        for (int i = 0; i < starts.length; i++) {
+            long[] expected = Perft.divide(Perft.Implementation.ARRAY, starts[i], depths[i], pool);
+            for (Perft.Implementation implementation : Perft.Implementation.values()) {
+                if (implementation == Perft.Implementation.ARRAY) continue;
+                assertArrayEquals(expected, Perft.divide(implementation, starts[i], depths[i], pool),
+                        implementation.getDisplayName() + " from start " + i);
+            }
+        }
+    }
+
+    @Test
+    void finishedGameHasNoMoves() {
+        GameRecord won = new GameRecord(GameConfig.PLAYER, null, new byte[] { 0, 1, 0, 1, 0, 1, 0 });
+        for (Perft.Implementation implementation : Perft.Implementation.values()) {
+            assertEquals(0, Perft.count(implementation, won, 3, pool), implementation.getDisplayName());
+        }
+    }
+
+    @Test
+    void depthBelowOneIsRejected() {
+        GameRecord start = new GameRecord(GameConfig.PLAYER, null, new byte[0]);
+        assertThrows(IllegalArgumentException.class, () -> Perft.count(Perft.Implementation.BITBOARD, start, 0, pool));
+    }
+}
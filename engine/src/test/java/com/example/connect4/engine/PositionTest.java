@@ -0,0 +1,131 @@
+package com.example.connect4.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The bitboard against the ArrayList board of GameData and a scan of every line on it, on boards with and
+// without the padding bit, with the two-shift test for four and with other win lengths
+class PositionTest {
+    private static final int GAMES = 300;
+
+    @Test
+    void randomGamesMatchGameData() {
+        Random random = new Random(1);
+        for (BoardGeometry geometry : RandomGames.GEOMETRIES) {
+            for (int game = 0; game < GAMES; game++) {
+                playRandomGame(geometry, random, geometry + " game " + game);
+            }
+        }
+    }
+
+    private static void playRandomGame(BoardGeometry geometry, Random random, String name) {
+        int firstToMove = RandomGames.firstToMove(random);
+        Position position = new Position(geometry, firstToMove);
+        GameData data = new GameData(geometry);
+        data.restartGame(firstToMove);
+        ArrayList<ArrayList<Integer>> board = data.getBoard();
+        int toMove = firstToMove;
+        int[] played = new int[geometry.getCells()];
+        int moves = 0;
+
+        while (true) {
+            for (int column = 0; column < geometry.getColumns(); column++) {
+                boolean open = board.get(0).get(column) == GameConfig.EMPTY;
+                assertEquals(open, position.canPlay(column), name + ", column " + column + " playable");
+                if (open) {
+                    assertEquals(winsAfter(board, geometry, column, toMove), position.isWinningMove(column),
+                            name + ", column " + column + " wins");
+                }
+            }
+
+            int column = RandomGames.column(position, random);
+            int row = data.placePiece(column, toMove);
+            position.play(column);
+            played[moves++] = column;
+            String move = name + ", move " + moves;
+
+            boolean won = hasLine(board, geometry, toMove);
+            assertEquals(won, position.isWinAt(column), move + " isWinAt");
+            assertEquals(won, data.checkWin(row, column), move + " checkWin");
+            assertEquals(won, position.lastMoverWon(), move + " lastMoverWon");
+            for (int r = 0; r < geometry.getRows(); r++) {
+                for (int c = 0; c < geometry.getColumns(); c++) {
+                    assertEquals((int) board.get(r).get(c), position.getCell(r, c), move + ", cell " + r + "," + c);
+                }
+            }
+            assertEquals(Position.opponent(toMove), position.getToMove(), move + " side to move");
+            assertEquals(moves, position.getMoves(), move + " moves");
+            toMove = Position.opponent(toMove);
+
+            if (won) break;
+            assertEquals(moves == geometry.getCells(), position.isFull(), move + " isFull");
+            if (position.isFull()) break;
+        }
+
+        // Taking every move back returns to the empty board, hash included
+        while (moves > 0) position.undo(played[--moves]);
+        assertEquals(0, position.getMask(), name + " mask after undo");
+        assertEquals(0, position.getStones(GameConfig.PLAYER) | position.getStones(GameConfig.AI), name + " stones after undo");
+        assertEquals(new Position(geometry, firstToMove).getHash(), position.getHash(), name + " hash after undo");
+        assertEquals(firstToMove, position.getToMove(), name + " side to move after undo");
+    }
+
+    @Test
+    void transpositionsAndMirrorImagesShareAHash() {
+        Position a = new Position();
+        Position b = new Position();
+        for (int column : new int[] { 3, 2, 4, 2 }) a.play(column);
+        for (int column : new int[] { 4, 2, 3, 2 }) b.play(column);
+        assertEquals(a.getHash(), b.getHash());
+
+        Position mirrored = new Position();
+        for (int column : new int[] { 3, 2, 4, 2 }) mirrored.play(mirrored.mirror(column));
+        assertTrue(a.getHash() != mirrored.getHash());
+        assertEquals(a.getCanonicalHash(), mirrored.getCanonicalHash());
+        assertEquals(mirrored.mirror(2), mirrored.canonicalMove(a.canonicalMove(2)));
+    }
+
+    @Test
+    void fullColumnCannotBePlayed() {
+        Position position = new Position();
+        for (int i = 0; i < GameConfig.ROWS; i++) position.play(0);
+        assertFalse(position.canPlay(0));
+        assertEquals(GameConfig.INVALID, position.getEmptyRow(0));
+    }
+
+    private static boolean winsAfter(ArrayList<ArrayList<Integer>> board, BoardGeometry geometry, int column, int player) {
+        int row = board.size() - 1;
+        while (board.get(row).get(column) != GameConfig.EMPTY) row--;
+        board.get(row).set(column, player);
+        boolean wins = hasLine(board, geometry, player);
+        board.get(row).set(column, GameConfig.EMPTY);
+        return wins;
+    }
+
+    // Scan of every cell and direction for winLength stones of the player in a row
+    private static boolean hasLine(ArrayList<ArrayList<Integer>> board, BoardGeometry geometry, int player) {
+        int[][] directions = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } }; // Row and column steps
+        for (int row = 0; row < geometry.getRows(); row++) {
+            for (int column = 0; column < geometry.getColumns(); column++) {
+                for (int[] direction : directions) {
+                    int length = 0;
+                    int r = row;
+                    int c = column;
+                    while (r < geometry.getRows() && c >= 0 && c < geometry.getColumns() && board.get(r).get(c) == player) {
+                        length++;
+                        r += direction[0];
+                        c += direction[1];
+                    }
+                    if (length >= geometry.getWinLength()) return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.connect4.engine;
+
+import java.util.List;
+import java.util.Random;
+
+// Boards the tests of random games are played on, and the random legal moves they make
+final class RandomGames {
+    // The standard board, a padded and an unpadded one, other win lengths and the widest board
+    static final List<BoardGeometry> GEOMETRIES = List.of(BoardGeometry.STANDARD, BoardGeometry.parse("8x7"),
+            BoardGeometry.parse("9x7"), BoardGeometry.parse("9x7x5"), BoardGeometry.parse("4x4x3"), BoardGeometry.parse("14x4"));
+
+    private RandomGames() {
+    }
+
+    static int firstToMove(Random random) {
+        return random.nextBoolean() ? GameConfig.PLAYER : GameConfig.AI;
+    }
+
+    // Any column the position can be played in; the position must not be full
+    static int column(Position position, Random random) {
+        int column;
+        do {
+            column = random.nextInt(position.getGeometry().getColumns());
+        } while (!position.canPlay(column));
+        return column;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.connect4.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Exact scores of the solver against hand-built positions and a plain minimax over an array board.
+// Solving the empty board (a first-player win in the center column) takes hours without an opening
+// book, so the positions here are ones whose result can be checked independently.
+class SolverTest {
+    private static final int CELLS = GameConfig.COLUMNS * GameConfig.ROWS;
+    private static final int EMPTY_CELLS = 14; // Random positions are left this many moves from a full board
+
+    private final Solver solver = new Solver(16);
+
+    @Test
+    void winOnTheNextMoveScoresTheCellsLeft() {
+        Position position = play(0, 0, 1, 1, 2, 2); // Three in a row on the bottom, column 3 wins
+        assertEquals((CELLS + 1 - 6) / 2, solver.solve(position));
+        assertEquals(1, solver.solve(position, true));
+    }
+
+    @Test
+    void doubleThreatLosesOnTheOpponentsNextMove() {
+        Position position = play(2, 2, 3, 3, 4); // Columns 1 and 5 both win for the first player
+        assertEquals(-(CELLS - 5) / 2, solver.solve(position));
+        assertEquals(-1, solver.solve(position, true));
+        assertEquals(0, nonLosingMoves(position));
+    }
+
+    @Test
+    void forcedBlockIsTheOnlyNonLosingMove() {
+        Position position = play(0, 0, 1, 1, 2); // The first player threatens the bottom of column 3
+        long bottomOfThree = Solver.possible(position.getMask()) & Solver.columnMask(3);
+        assertEquals(bottomOfThree, nonLosingMoves(position));
+    }
+
+    @Test
+    void movesBelowAnOpponentThreatAreExcluded() {
+        // The first player holds the second row of columns 1 to 3, so filling the bottom of 0 or 4 loses
+        Position position = play(2, 1, 1, 3, 3, 6, 2);
+        long possible = Solver.possible(position.getMask());
+        long expected = possible & ~Solver.columnMask(0) & ~Solver.columnMask(4);
+        assertEquals(expected, nonLosingMoves(position));
+    }
+
+    @Test
+    void mirrorImagesHaveTheSameScore() {
+        int[] columns = { 3, 2, 3, 2, 4, 4, 1, 5, 5, 0, 6, 6, 6, 0, 1, 1, 4, 6, 2, 2, 0, 0, 5, 5 };
+        Position position = play(columns);
+        Position mirrored = new Position();
+        for (int column : columns) mirrored.play(mirrored.mirror(column));
+        assertEquals(solver.solve(position), new Solver(16).solve(mirrored));
+    }
+
+    @Test
+    void lateRandomPositionsMatchAPlainMinimax() {
+        Random random = new Random(8);
+        for (int game = 0; game < 300; game++) {
+            int[][] board = new int[GameConfig.COLUMNS][GameConfig.ROWS]; // Column, height; 0 empty, 1 to move first
+            int[] heights = new int[GameConfig.COLUMNS];
+            Position position = new Position();
+            int moves = 0;
+            while (moves < CELLS - EMPTY_CELLS && !onlyWinningMovesLeft(position)) {
+                int column = random.nextInt(GameConfig.COLUMNS);
+                if (!position.canPlay(column) || position.isWinningMove(column)) continue; // Keep the game going
+                board[column][heights[column]++] = 1 + moves % 2;
+                position.play(column);
+                moves++;
+            }
+            if (moves < CELLS - EMPTY_CELLS || canWinAtOnce(position)) continue; // Only searched results
+
+            int expected = minimax(board, heights, moves);
+            String name = "game " + game;
+            assertEquals(expected, solver.solve(position), name);
+            assertEquals(Integer.signum(expected), solver.solve(position, true), name + " weak");
+        }
+    }
+
+    @Test
+    void deadlineAbortsTheSolve() {
+        solver.setDeadline(System.nanoTime());
+        solver.solve(new Position());
+        assertTrue(solver.isAborted());
+        solver.setDeadline(Long.MAX_VALUE);
+    }
+
+    private static Position play(int... columns) {
+        Position position = new Position();
+        for (int column : columns) position.play(column);
+        return position;
+    }
+
+    private static long nonLosingMoves(Position position) {
+        return Solver.possibleNonLosingMoves(position.getStones(position.getToMove()), position.getMask());
+    }
+
+    private static boolean canWinAtOnce(Position position) {
+        for (int column = 0; column < GameConfig.COLUMNS; column++) {
+            if (position.canPlay(column) && position.isWinningMove(column)) return true;
+        }
+        return false;
+    }
+
+    private static boolean onlyWinningMovesLeft(Position position) {
+        for (int column = 0; column < GameConfig.COLUMNS; column++) {
+            if (position.canPlay(column) && !position.isWinningMove(column)) return false;
+        }
+        return true;
+    }
+
+    // Score in the solver's convention by trying every move to the end of the game, wins found by a
+    // scan of the lines through the new stone
+    private static int minimax(int[][] board, int[] heights, int moves) {
+        if (moves == CELLS) return 0;
+        int player = 1 + moves % 2;
+        for (int column = 0; column < GameConfig.COLUMNS; column++) {
+            if (heights[column] < GameConfig.ROWS && winsAt(board, column, heights[column], player)) {
+                return (CELLS + 1 - moves) / 2;
+            }
+        }
+        int best = -CELLS;
+        for (int column = 0; column < GameConfig.COLUMNS; column++) {
+            if (heights[column] == GameConfig.ROWS) continue;
+            board[column][heights[column]++] = player;
+            best = Math.max(best, -minimax(board, heights, moves + 1));
+            board[column][--heights[column]] = 0;
+        }
+        return best;
+    }
+
+    private static boolean winsAt(int[][] board, int column, int height, int player) {
+        int[][] directions = { { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 } };
+        for (int[] direction : directions) {
+            int count = 1;
+            for (int sign = -1; sign <= 1; sign += 2) {
+                int c = column + sign * direction[0];
+                int h = height + sign * direction[1];
+                while (c >= 0 && c < GameConfig.COLUMNS && h >= 0 && h < GameConfig.ROWS && board[c][h] == player) {
+                    count++;
+                    c += sign * direction[0];
+                    h += sign * direction[1];
+                }
+            }
+            if (count >= GameConfig.WIN_LENGTH) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.connect4.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The counts kept up by play and undo against a rebuild and a scan of every window, and the threat
+// weights against Evaluator. The two models differ on purpose: ThreatEvaluator scores every window a run
+// lies in, Evaluator scores each run once by its open ends, so only the order of positions is shared.
+class ThreatEvaluatorTest {
+    private static final int[][] DIRECTIONS = { { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 } }; // Column, height steps
+
+    @Test
+    void incrementalCountsMatchARecountAtEveryPly() {
+        Random random = new Random(7);
+        for (BoardGeometry geometry : RandomGames.GEOMETRIES) {
+            for (int game = 0; game < 100; game++) {
+                Position position = new Position(geometry, RandomGames.firstToMove(random));
+                ThreatEvaluator evaluator = new ThreatEvaluator();
+                evaluator.reset(position);
+                int[] played = new int[geometry.getCells()];
+                int moves = 0;
+
+                // Forward to the end of the game, with a few moves taken back on the way
+                while (!position.isFull() && !position.lastMoverWon()) {
+                    if (moves > 0 && random.nextInt(4) == 0) {
+                        int column = played[--moves];
+                        position.undo(column);
+                        evaluator.undo(position, column);
+                    } else {
+                        int column = RandomGames.column(position, random);
+                        evaluator.play(position, column);
+                        position.play(column);
+                        played[moves++] = column;
+                    }
+                    assertMatchesRecount(evaluator, position, geometry + " game " + game + " ply " + moves);
+                }
+
+                // And all the way back
+                while (moves > 0) {
+                    int column = played[--moves];
+                    position.undo(column);
+                    evaluator.undo(position, column);
+                    assertMatchesRecount(evaluator, position, geometry + " game " + game + " undo to ply " + moves);
+                }
+            }
+        }
+    }
+
+    private static void assertMatchesRecount(ThreatEvaluator evaluator, Position position, String name) {
+        ThreatEvaluator rebuilt = new ThreatEvaluator();
+        rebuilt.reset(position);
+        for (int player = GameConfig.PLAYER; player <= GameConfig.AI; player++) {
+            assertArrayEquals(rebuilt.getWindowCounts(player), evaluator.getWindowCounts(player), name + " counts of " + player);
+            assertEquals(scanScore(position, player), evaluator.getScore(player), name + " score of " + player);
+        }
+        assertEquals(rebuilt.heuristic(position), evaluator.heuristic(position), name + " heuristic");
+    }
+
+    // Sum over the windows holding only the player's stones of the weight for the stones it still lacks
+    private static int scanScore(Position position, int player) {
+        BoardGeometry geometry = position.getGeometry();
+        int winLength = geometry.getWinLength();
+        int score = 0;
+        for (int[] direction : DIRECTIONS) {
+            for (int column = 0; column < geometry.getColumns(); column++) {
+                for (int height = 0; height < geometry.getRows(); height++) {
+                    int endColumn = column + direction[0] * (winLength - 1);
+                    int endHeight = height + direction[1] * (winLength - 1);
+                    if (!geometry.onBoard(endColumn, endHeight)) continue;
+
+                    int mine = 0;
+                    int theirs = 0;
+                    for (int i = 0; i < winLength; i++) {
+                        int cell = cell(position, column + direction[0] * i, height + direction[1] * i);
+                        if (cell == player) mine++;
+                        else if (cell != GameConfig.EMPTY) theirs++;
+                    }
+                    if (theirs > 0) continue;
+                    if (mine == winLength - 1) score += Evaluator.THREE_IN_A_ROW_SCORE;
+                    else if (mine == winLength - 2 && winLength > 2) score += Evaluator.TWO_IN_A_ROW_SCORE;
+                }
+            }
+        }
+        return score;
+    }
+
+    private static int cell(Position position, int column, int height) {
+        return position.getCell(position.getGeometry().getRows() - 1 - height, column);
+    }
+
+    // X for the side to move, O for the opponent, rows from the top
+    private static final String[] EMPTY = board();
+    private static final String[] SINGLE = board("...X...");
+    private static final String[] OPEN_TWO = board("..XX...");
+    private static final String[] THREE_AT_THE_EDGE = board("XXX....");
+    private static final String[] OPEN_THREE = board("..XXX..");
+    private static final String[] BLOCKED_THREE = board(".OXXXO.");
+    private static final String[] TWO_AGAINST_THREE = board("......X", "..OOO.X");
+
+    // Both rank a two with room on both sides above a three that the edge leaves one way to complete
+    @Test
+    void threatsAreOrderedLikeEvaluator() {
+        String[][] weakestFirst = { TWO_AGAINST_THREE, EMPTY, THREE_AT_THE_EDGE, OPEN_TWO, OPEN_THREE };
+        for (int i = 1; i < weakestFirst.length; i++) {
+            Position weaker = position(weakestFirst[i - 1]);
+            Position stronger = position(weakestFirst[i]);
+            assertTrue(threatScore(weaker) < threatScore(stronger), "ThreatEvaluator, position " + i);
+            assertTrue(new Evaluator().heuristic(weaker) <= new Evaluator().heuristic(stronger), "Evaluator, position " + i);
+        }
+    }
+
+    @Test
+    void loneStonesAndBlockedThreesScoreLittle() {
+        for (String[] rows : new String[][] { EMPTY, SINGLE }) {
+            assertEquals(0, threatScore(position(rows)));
+            assertEquals(0, new Evaluator().heuristic(position(rows)));
+        }
+        assertTrue(threatScore(position(BLOCKED_THREE)) < threatScore(position(OPEN_THREE)));
+        assertTrue(new Evaluator().heuristic(position(BLOCKED_THREE)) < new Evaluator().heuristic(position(OPEN_THREE)));
+    }
+
+    @Test
+    void scoresAreZeroSum() {
+        for (String[] rows : new String[][] { OPEN_TWO, OPEN_THREE, TWO_AGAINST_THREE }) {
+            Position forX = position(rows);
+            Position forO = Position.fromBoard(cells(rows), GameConfig.AI);
+            assertEquals(-threatScore(forX), threatScore(forO));
+            assertEquals(-new Evaluator().heuristic(forX), new Evaluator().heuristic(forO));
+        }
+    }
+
+    private static int threatScore(Position position) {
+        ThreatEvaluator evaluator = new ThreatEvaluator();
+        evaluator.reset(position);
+        return evaluator.heuristic(position);
+    }
+
+    // Standard board with the given bottom rows
+    private static String[] board(String... bottomRows) {
+        String[] rows = new String[GameConfig.ROWS];
+        for (int row = 0; row < rows.length; row++) {
+            int fromBottom = rows.length - 1 - row;
+            rows[row] = fromBottom < bottomRows.length ? bottomRows[bottomRows.length - 1 - fromBottom] : ".......";
+        }
+        return rows;
+    }
+
+    private static Position position(String[] rows) {
+        return Position.fromBoard(cells(rows), GameConfig.PLAYER);
+    }
+
+    private static ArrayList<ArrayList<Integer>> cells(String[] rows) {
+        ArrayList<ArrayList<Integer>> board = new ArrayList<>();
+        for (String row : rows) {
+            ArrayList<Integer> cells = new ArrayList<>();
+            for (char c : row.toCharArray()) {
+                cells.add(c == 'X' ? GameConfig.PLAYER : c == 'O' ? GameConfig.AI : GameConfig.EMPTY);
+            }
+            board.add(cells);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.connect4.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TranspositionTableTest {
+    private static final int WIN = Evaluator.WINNING_SCORE;
+
+    private final TranspositionTable table = new TranspositionTable(1);
+    private final int buckets = table.capacity() / 2;
+
+    @Test
+    void probeReturnsWhatWasStored() {
+        long hash = 0x123456789ABCDEFL;
+        table.store(hash, 9, TranspositionTable.LOWER, -321, 6);
+
+        long entry = table.probe(hash);
+        assertTrue(entry != 0);
+        assertEquals(9, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(-321, TranspositionTable.score(entry));
+        assertEquals(6, TranspositionTable.move(entry));
+    }
+
+    @Test
+    void noMoveAndExtremeScoresSurvive() {
+        table.store(1, 0, TranspositionTable.EXACT, WIN - 1, GameConfig.INVALID);
+        table.store(2, 0, TranspositionTable.UPPER, -(WIN - 1), BoardGeometry.MAX_COLUMNS - 1);
+
+        assertEquals(WIN - 1, TranspositionTable.score(table.probe(1)));
+        assertEquals(GameConfig.INVALID, TranspositionTable.move(table.probe(1)));
+        assertEquals(-(WIN - 1), TranspositionTable.score(table.probe(2)));
+        assertEquals(BoardGeometry.MAX_COLUMNS - 1, TranspositionTable.move(table.probe(2)));
+    }
+
+    @Test
+    void otherHashInTheSameBucketMisses() {
+        long hash = 77;
+        table.store(hash, 3, TranspositionTable.EXACT, 10, 3);
+        assertEquals(0, table.probe(hash + buckets));
+    }
+
+    @Test
+    void deepestEntryOfABucketSurvivesShallowerOnes() {
+        long deep = 5;
+        long first = deep + buckets;
+        long second = deep + 2L * buckets;
+        table.store(deep, 12, TranspositionTable.EXACT, 1, 3);
+        table.store(first, 2, TranspositionTable.EXACT, 2, 3);
+        table.store(second, 1, TranspositionTable.EXACT, 3, 3); // Replaces first, the always-replace slot
+
+        assertEquals(12, TranspositionTable.depth(table.probe(deep)));
+        assertEquals(0, table.probe(first));
+        assertEquals(3, TranspositionTable.score(table.probe(second)));
+    }
+
+    @Test
+    void entriesOfAnOlderSearchCanBeReplaced() {
+        long deep = 9;
+        long shallow = deep + buckets;
+        table.store(deep, 12, TranspositionTable.EXACT, 1, 3);
+        table.newSearch();
+        table.store(shallow, 1, TranspositionTable.EXACT, 2, 3);
+
+        assertEquals(0, table.probe(deep));
+        assertEquals(2, TranspositionTable.score(table.probe(shallow)));
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        table.store(42, 4, TranspositionTable.EXACT, 5, 1);
+        table.clear();
+        assertEquals(0, table.probe(42));
+    }
+
+    // A win found 5 plies below a node stored at ply 3 is 5 plies away wherever the node is met again
+    @Test
+    void winAndLossScoresAreStoredRelativeToTheNode() {
+        int winAtPly8 = WIN - 8;
+        int stored = TranspositionTable.scoreToTable(winAtPly8, 3);
+        assertEquals(WIN - 5, stored);
+        assertEquals(WIN - 7, TranspositionTable.scoreFromTable(stored, 2));
+        assertEquals(WIN - 11, TranspositionTable.scoreFromTable(stored, 6));
+
+        int lossAtPly8 = -(WIN - 8);
+        stored = TranspositionTable.scoreToTable(lossAtPly8, 3);
+        assertEquals(-(WIN - 5), stored);
+        assertEquals(-(WIN - 11), TranspositionTable.scoreFromTable(stored, 6));
+    }
+
+    @Test
+    void heuristicScoresAreStoredAsIs() {
+        for (int score : new int[] { 0, 250, -250, AlphaBetaAI.DECIDED_SCORE - 200 }) {
+            assertEquals(score, TranspositionTable.scoreToTable(score, 7));
+            assertEquals(score, TranspositionTable.scoreFromTable(score, 7));
+        }
+    }
+
+    // Through a real search: a table entry of a forced win must give the same score as searching again
+    @Test
+    void searchWithATableFindsTheSameWinAsWithout() {
+        Position position = new Position();
+        for (int column : new int[] { 3, 3, 2, 2, 4, 4 }) position.play(column); // 1 or 5 wins at once
+        AlphaBetaAI cold = new AlphaBetaAI(6);
+        AlphaBetaAI warm = new AlphaBetaAI(6);
+        warm.chooseColumn(position);
+        int column = warm.chooseColumn(position);
+
+        cold.chooseColumn(position);
+        assertEquals(cold.getLastScore(), warm.getLastScore());
+        assertTrue(warm.getLastScore() > AlphaBetaAI.DECIDED_SCORE);
+        assertTrue(column == 1 || column == 5);
+    }
+}
@@ -1,7 +0,0 @@
-package com.example.connect4;
-
-import java.util.ArrayList;
-
-public abstract class AI {
-    public abstract int chooseColumn(ArrayList<ArrayList<Integer>> board);
-}
@@ -1,18 +0,0 @@
-package com.example.connect4;
-
-import javafx.scene.paint.Color;
-
-public class GameConfig {
-    public static final int COLUMNS = 7;
-    public static final int ROWS = 6;
-    public static final int CELL_SIZE = 25;
-    public static final int CELL_SPACING = 10;
-    public static final Color COLOR_CIRCLE = Color.WHITE;
-    public static final Color COLOR_STROKE = Color.BLUE;
-    public static final int EMPTY = 0;
-    public static final int PLAYER = 1;
-    public static final int AI = 2;
-    public static final Color COLOR_PLAYER = Color.RED;
-    public static final Color COLOR_AI = Color.YELLOW;
-    public static final int INVALID = -1;
-}